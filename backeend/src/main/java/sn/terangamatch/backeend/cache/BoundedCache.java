@@ -0,0 +1,165 @@
+package sn.terangamatch.backeend.cache;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache mémoire borné (LRU approché) avec expiration par entrée.
+ * Une lecture ne prend aucun verrou : elle note seulement l'instant d'accès de l'entrée. Quand une
+ * écriture fait dépasser la taille maximale, un seul thread évince d'un coup les entrées expirées
+ * puis les moins récemment lues, jusqu'à repasser sous la limite avec une marge (10 %).
+ * Les valeurs stockées doivent être immuables : elles sont partagées entre les threads.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final int evictTo;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // Précision de l'ordre LRU : une entrée très lue n'est réécrite qu'une fois par milliseconde
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(String name, int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille du cache " + name + " doit être positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.evictTo = maxSize - Math.max(1, maxSize / 10);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            long accessedAt = System.nanoTime();
+            if (accessedAt - entry.lastAccess > ACCESS_GRANULARITY_NANOS) {
+                entry.lastAccess = accessedAt;
+            }
+            hits.increment();
+            return Optional.of(entry.value);
+        }
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // Lecture "read-through" : le loader est appelé hors verrou, un résultat null n'est pas mis en cache
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Optional<V> cached = get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    // Expiration explicite (ex : la date "exp" d'un JWT), plafonnée par le TTL du cache
+    public void put(K key, V value, long expiresAtMillis) {
+        long expiresAt = Math.min(expiresAtMillis, System.currentTimeMillis() + ttlMillis);
+        entries.put(key, new Entry<>(value, expiresAt, System.nanoTime()));
+        // Un seul thread évince ; les autres écrivains ne l'attendent pas
+        if (entries.size() > maxSize && evictionLock.tryLock()) {
+            try {
+                evictOverflow();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public void evictIf(Predicate<? super V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, size(), maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    // Expirées d'abord, puis les moins récemment lues ; amorti sur les maxSize / 10 insertions suivantes
+    private void evictOverflow() {
+        long now = System.currentTimeMillis();
+        long origin = System.nanoTime();
+        List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Entry<V>> mapping : entries.entrySet()) {
+            Entry<V> entry = mapping.getValue();
+            if (entry.expiresAt <= now) {
+                if (entries.remove(mapping.getKey(), entry)) {
+                    evictions.increment();
+                }
+            } else {
+                // Instant d'accès figé (relatif : nanoTime peut être négatif), le tri ne doit pas le voir bouger
+                candidates.add(new Candidate<>(mapping.getKey(), entry, entry.lastAccess - origin));
+            }
+        }
+        int excess = entries.size() - evictTo;
+        if (excess <= 0) {
+            return;
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+        for (int i = 0; i < candidates.size() && excess > 0; i++) {
+            Candidate<K, V> candidate = candidates.get(i);
+            if (entries.remove(candidate.key(), candidate.entry())) {
+                evictions.increment();
+                excess--;
+            }
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long lastAccess) {
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(V value, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package sn.terangamatch.backeend.cache;
+
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Point central de création des caches mémoire, pour exposer leurs statistiques
+@Component
+public class CacheRegistry {
+
+    private final Map<String, BoundedCache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    public <K, V> BoundedCache<K, V> create(String name, int maxSize, Duration ttl) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maxSize, ttl);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Cache déjà déclaré : " + name);
+        }
+        return cache;
+    }
+
+    public List<CacheStats> stats() {
+        return caches.values().stream()
+                .map(BoundedCache::stats)
+                .toList();
+    }
+}
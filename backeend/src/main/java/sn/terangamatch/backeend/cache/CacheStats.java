@@ -0,0 +1,19 @@
+package sn.terangamatch.backeend.cache;
+
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+    String name;
+    int size;
+    int maxSize;
+    long hits;
+    long misses;
+    long evictions;
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,97 @@
+package sn.terangamatch.backeend.cache;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions utilisées comme ETag : updatedAt pour une entité, et pour une collection :
+ * <ul>
+ *   <li>articles et événements : nombre de lignes et plus grand updated_at, lus en base. Une écriture
+ *   faite sur un autre nœud change donc la version ici aussi, au plus tard après
+ *   {@code app.cache.collection-version-ttl} ; les listes en cache sont indexées par cette version.</li>
+ *   <li>lieux : compteur incrémenté à chaque écriture locale, parti de l'heure de démarrage. Les listes
+ *   de lieux sont servies par des index en mémoire propres à chaque nœud ; cette version ne vaut que
+ *   pour un seul nœud.</li>
+ * </ul>
+ */
+@Component
+public class ContentVersions {
+
+    public static final String ARTICLES = "articles";
+    public static final String EVENTS = "events";
+    public static final String PLACES = "places";
+
+    // Collections dont la version est lue en base, et leur table
+    private static final Map<String, String> TABLES = Map.of(ARTICLES, "articles", EVENTS, "events");
+
+    private record Stamp(String version, long readAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final long bootTime = System.currentTimeMillis();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Stamp> stamps = new ConcurrentHashMap<>();
+
+    public ContentVersions(JdbcTemplate jdbcTemplate,
+                           @Value("${app.cache.collection-version-ttl:2s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    // Écriture locale : la prochaine lecture relit la base sans attendre le TTL
+    public void bump(String collection) {
+        counter(collection).incrementAndGet();
+        stamps.remove(collection);
+    }
+
+    public String collectionEtag(String collection) {
+        return "\"" + collection + "-" + collectionVersion(collection) + "\"";
+    }
+
+    // À inclure dans la clé des listes en cache : une version changée ailleurs les contourne
+    public String collectionVersion(String collection) {
+        String table = TABLES.get(collection);
+        if (table == null) {
+            return Long.toHexString(bootTime) + "-" + counter(collection).get();
+        }
+        long now = System.currentTimeMillis();
+        Stamp stamp = stamps.get(collection);
+        if (stamp == null || now - stamp.readAt() >= ttlMillis) {
+            stamp = new Stamp(readVersion(table), now);
+            stamps.put(collection, stamp);
+        }
+        return stamp.version();
+    }
+
+    public static String entityEtag(String collection, Long id, LocalDateTime updatedAt) {
+        return "\"" + collection + "-" + id + "-" + Long.toHexString(micros(updatedAt)) + "\"";
+    }
+
+    private String readVersion(String table) {
+        return jdbcTemplate.queryForObject("select count(*), max(updated_at) from " + table, (rs, rowNum) -> {
+            Timestamp latest = rs.getTimestamp(2);
+            return Long.toHexString(rs.getLong(1)) + "-"
+                    + (latest != null ? Long.toHexString(micros(latest.toLocalDateTime())) : "0");
+        });
+    }
+
+    private static long micros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), time);
+    }
+
+    private AtomicLong counter(String collection) {
+        return versions.computeIfAbsent(collection, c -> new AtomicLong());
+    }
+}
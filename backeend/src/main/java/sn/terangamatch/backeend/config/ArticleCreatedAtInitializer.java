@@ -0,0 +1,40 @@
+package sn.terangamatch.backeend.config;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * articles.created_at sert de clé au curseur de la liste : un null produirait un curseur illisible.
+ * ddl-auto=update ne modifie pas une colonne existante ; on complète donc les lignes insérées hors
+ * d'Hibernate (updated_at, sinon l'heure de la JVM) puis on pose la contrainte NOT NULL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleCreatedAtInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int updated = jdbcTemplate.update(
+                    "update articles set created_at = coalesce(updated_at, ?) where created_at is null",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            jdbcTemplate.execute("alter table articles alter column created_at set not null");
+            if (updated > 0) {
+                log.info("Date de création complétée pour {} article(s)", updated);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Impossible d'imposer articles.created_at non null", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package sn.terangamatch.backeend.config;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.repository.EventRepository;
+
+/**
+ * Calcule location_key pour les événements enregistrés avant l'ajout de la colonne. Les nouveaux
+ * événements la reçoivent de Event.normalize() ; une seule requête par lieu distinct.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventLocationBackfill implements CommandLineRunner {
+
+    private final EventRepository eventRepository;
+
+    @Override
+    public void run(String... args) {
+        int updated = 0;
+        for (String location : eventRepository.findLocationsWithoutKey()) {
+            String key = Event.locationKey(location);
+            if (key != null) {
+                updated += eventRepository.updateLocationKey(location, key);
+            }
+        }
+        if (updated > 0) {
+            log.info("Clé de lieu calculée pour {} événement(s)", updated);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package sn.terangamatch.backeend.config;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.repository.EventRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aligne price_amount sur Event.parsePriceAmount pour les événements enregistrés avant l'ajout
+ * de la colonne ou avec une ancienne règle de lecture. Les nouveaux événements sont normalisés
+ * par Event.normalize() ; une seule requête par libellé de prix distinct, et seules les
+ * lignes dont le montant change sont réécrites.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventPriceBackfill implements CommandLineRunner {
+
+    private final EventRepository eventRepository;
+
+    @Override
+    public void run(String... args) {
+        int updated = 0;
+        List<String> unknown = new ArrayList<>();
+        for (String price : eventRepository.findDistinctPrices()) {
+            Long amount = Event.parsePriceAmount(price);
+            if (amount != null) {
+                updated += eventRepository.updatePriceAmount(price, amount);
+            } else {
+                unknown.add(price);
+            }
+        }
+        // "in ()" vide est invalide : une valeur impossible garde la requête correcte
+        updated += eventRepository.clearPriceAmount(unknown.isEmpty() ? List.of("") : unknown);
+        if (updated > 0) {
+            log.info("Montant normalisé pour {} événement(s)", updated);
+        }
+    }
+}
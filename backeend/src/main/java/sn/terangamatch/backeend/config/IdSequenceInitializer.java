@@ -0,0 +1,48 @@
+package sn.terangamatch.backeend.config;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Les identifiants sont alloués par séquences (allocationSize = 50) au lieu de colonnes IDENTITY,
+ * ce qui permet le batching JDBC. Sur une base existante, les séquences créées par Hibernate
+ * repartent de 1 : on les positionne au-delà du plus grand id déjà présent avant toute insertion.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements CommandLineRunner {
+
+    private static final List<String> TABLES = List.of(
+            "agences_voyage", "articles", "bookings", "events", "matches",
+            "media", "places", "profiles", "reviews", "ticket_types", "tickets", "users"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            try {
+                jdbcTemplate.queryForObject(
+                        "select setval('" + sequence + "', greatest("
+                                + "(select coalesce(max(id), 1) from " + table + "), "
+                                + "(select last_value from " + sequence + ")))",
+                        Long.class);
+            } catch (DataAccessException e) {
+                log.warn("Impossible d'aligner la séquence {} sur la table {}", sequence, table, e);
+            }
+        }
+    }
+}
@@ -2,20 +2,22 @@ package sn.terangamatch.backeend.controller;
 
 
 import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.ArticleDTO;
+import sn.terangamatch.backeend.dto.ArticlePageDTO;
 import sn.terangamatch.backeend.model.Article;
 import sn.terangamatch.backeend.service.ArticleService;
+import sn.terangamatch.backeend.service.ImageDerivativeService;
+import sn.terangamatch.backeend.service.UploadStorageService;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -24,25 +26,46 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ArticleController {
 
+    private static final String ARTICLE_UPLOADS = "articles";
+
     private final ArticleService articleService;
+    private final UploadStorageService uploadStorageService;
+    private final ImageDerivativeService imageDerivativeService;
 
+    // Résumés uniquement (sans content) ; l'article complet est servi par GET /{id}
     @GetMapping
-    public ResponseEntity<List<Article>> getAllArticles(
+    public ResponseEntity<ArticlePageDTO> getAllArticles(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String category) {
-
-        if (search != null && !search.isEmpty()) {
-            return ResponseEntity.ok(articleService.searchArticles(search));
-        } else if (category != null && !category.isEmpty()) {
-            return ResponseEntity.ok(articleService.getArticlesByCategory(category));
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "recent") String sort,
+            WebRequest webRequest) {
+
+        // 304 directement à partir de la version de la collection, sans requête
+        String etag = articleService.getArticlesEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
-        return ResponseEntity.ok(articleService.getAllArticles());
+
+        ArticlePageDTO page = search != null && !search.isEmpty()
+                ? articleService.searchArticleSummaries(search, cursor, limit)
+                : articleService.listArticles(category, "featured".equalsIgnoreCase(sort), cursor, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(page);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
-        return articleService.getArticleById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<ArticleDTO> getArticleById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> etag = articleService.getArticleEtag(id);
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+        return articleService.getArticleSnapshot(id)
+                .map(article -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+                    etag.ifPresent(response::eTag);
+                    return response.body(article);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -60,17 +83,8 @@ public class ArticleController {
             // Sauvegarde l'image si elle existe
             String imageUrl = null;
             if (image != null && !image.isEmpty()) {
-                String uploadDir = "uploads/articles/";
-                String fileName = System.currentTimeMillis() + "_" + image.getOriginalFilename();
-
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-
-                Path filePath = uploadPath.resolve(fileName);
-                Files.write(filePath, image.getBytes());
-                imageUrl = "/uploads/articles/" + fileName;
+                imageUrl = uploadStorageService.store(image, ARTICLE_UPLOADS);
+                imageDerivativeService.enqueue(imageUrl);
             }
 
             // Crée l’article
@@ -120,21 +134,16 @@ public class ArticleController {
             article.setReadTime(readTime != null ? readTime : article.getReadTime());
 
             // Mise à jour de l'image si une nouvelle est fournie
+            String previousImage = article.getImage();
             if (image != null && !image.isEmpty()) {
-                String uploadDir = "uploads/articles/";
-                String fileName = System.currentTimeMillis() + "_" + image.getOriginalFilename();
-
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-
-                Path filePath = uploadPath.resolve(fileName);
-                Files.write(filePath, image.getBytes());
-                article.setImage("/uploads/articles/" + fileName);
+                article.setImage(uploadStorageService.store(image, ARTICLE_UPLOADS));
+                imageDerivativeService.enqueue(article.getImage());
             }
 
             Article updatedArticle = articleService.updateArticle(article);
+            if (previousImage != null && !previousImage.equals(updatedArticle.getImage())) {
+                articleService.releaseImage(previousImage);
+            }
             return ResponseEntity.ok(updatedArticle);
 
         } catch (IOException e) {
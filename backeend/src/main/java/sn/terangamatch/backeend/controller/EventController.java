@@ -2,14 +2,33 @@ package sn.terangamatch.backeend.controller;
 
 
 import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.EventDTO;
+import sn.terangamatch.backeend.dto.EventDetailDTO;
+import sn.terangamatch.backeend.dto.EventPageDTO;
+import sn.terangamatch.backeend.dto.EventSearchCriteria;
+import sn.terangamatch.backeend.dto.ParticipantPageDTO;
+import sn.terangamatch.backeend.dto.RegistrationDTO;
+import sn.terangamatch.backeend.dto.StreamTokenDTO;
+import sn.terangamatch.backeend.live.LiveScoreBroadcaster;
 import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.security.CustomUserDetails;
+import sn.terangamatch.backeend.security.jwt.JwtService;
+import sn.terangamatch.backeend.service.EventRegistrationService;
 import sn.terangamatch.backeend.service.EventService;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/events")
@@ -18,30 +37,131 @@ import java.util.List;
 public class EventController {
 
     private final EventService eventService;
+    private final EventRegistrationService registrationService;
+    private final LiveScoreBroadcaster liveScoreBroadcaster;
+    private final JwtService jwtService;
 
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<List<EventDTO>> getAllEvents(WebRequest webRequest) {
+        // 304 directement à partir de la version de la collection, sans requête
+        String etag = eventService.getEventsEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(eventService.getAllEvents());
+    }
+
+    // Ex : /api/events/search?type=sport&from=2026-10-31T00:00&free=false&maxPrice=5000&limit=20
+    @GetMapping("/search")
+    public ResponseEntity<EventPageDTO> search(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean free,
+            @RequestParam(required = false) Long minPrice,
+            @RequestParam(required = false) Long maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+
+        String etag = eventService.getEventsEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EventSearchCriteria criteria = EventSearchCriteria.builder()
+                .type(type)
+                .category(category)
+                .status(status)
+                .location(location)
+                .from(from)
+                .to(to)
+                .free(free)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(eventService.searchEvents(criteria, cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getEvent(@PathVariable Long id) {
-        return ResponseEntity.ok(eventService.getEventById(id));
+    public ResponseEntity<EventDetailDTO> getEvent(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> etag = eventService.getEventEtag(id);
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+        EventDetailDTO event = eventService.getEventSnapshot(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        etag.ifPresent(response::eTag);
+        return response.body(event);
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Event>> getByType(@PathVariable String type) {
-        return ResponseEntity.ok(eventService.getEventsByType(type));
+    public ResponseEntity<List<EventDTO>> getByType(@PathVariable String type, WebRequest webRequest) {
+        String etag = eventService.getEventsEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(eventService.getEventsByType(type));
     }
 
     @PostMapping
-    public ResponseEntity<Event> create(@RequestBody Event event) {
-        return ResponseEntity.ok(eventService.createEvent(event));
+    public ResponseEntity<EventDTO> create(@RequestBody Event event) {
+        return ResponseEntity.ok(EventDTO.from(eventService.createEvent(event)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Event> update(@PathVariable Long id, @RequestBody Event updated) {
-        return ResponseEntity.ok(eventService.updateEvent(id, updated));
+    public ResponseEntity<EventDTO> update(@PathVariable Long id, @RequestBody Event updated) {
+        return ResponseEntity.ok(EventDTO.from(eventService.updateEvent(id, updated)));
+    }
+
+    // EventSource ne peut pas envoyer d'en-tête Authorization : jeton court pour ?access_token=
+    @PostMapping("/live/stream-token")
+    public ResponseEntity<StreamTokenDTO> streamToken(@AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(new StreamTokenDTO(jwtService.generateStreamToken(principal.getUser()),
+                JwtService.STREAM_TOKEN_VALIDITY_MILLIS / 1000));
+    }
+
+    // Flux SSE des scores de tous les événements en direct
+    @GetMapping(value = "/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllLive() {
+        return liveScoreBroadcaster.subscribe(null, null);
+    }
+
+    // Flux SSE d'un événement ; le premier message donne l'état courant
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvent(@PathVariable Long id) {
+        return liveScoreBroadcaster.subscribe(id, eventService.getLiveSnapshot(id));
+    }
+
+    // Participants paginés par id ; le nombre total est aussi dans registered
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<ParticipantPageDTO> getParticipants(@PathVariable Long id,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(eventService.getParticipants(id, cursor, limit));
+    }
+
+    @GetMapping("/{id}/registration")
+    public ResponseEntity<RegistrationDTO> getRegistration(@PathVariable Long id,
+                                                           @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(registrationService.getRegistration(id, principal.getUser().getId()));
+    }
+
+    @PostMapping("/{id}/registration")
+    public ResponseEntity<RegistrationDTO> register(@PathVariable Long id,
+                                                    @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(registrationService.register(id, principal.getUser().getId()));
+    }
+
+    @DeleteMapping("/{id}/registration")
+    public ResponseEntity<RegistrationDTO> unregister(@PathVariable Long id,
+                                                      @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(registrationService.unregister(id, principal.getUser().getId()));
     }
 
     @DeleteMapping("/{id}")
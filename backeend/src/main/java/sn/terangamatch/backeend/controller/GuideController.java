@@ -0,0 +1,81 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.GuideDTO;
+import sn.terangamatch.backeend.dto.GuidePageDTO;
+import sn.terangamatch.backeend.dto.GuideRequest;
+import sn.terangamatch.backeend.dto.GuideSearchCriteria;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.security.CustomUserDetails;
+import sn.terangamatch.backeend.service.GuideService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/guides")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class GuideController {
+
+    private final GuideService guideService;
+
+    // Ex : /api/guides/search?specialties=histoire,wolof&match=all&verified=true&maxRate=15000
+    @GetMapping("/search")
+    public ResponseEntity<GuidePageDTO> search(
+            @RequestParam(required = false) List<String> specialties,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) Long agenceVoyageId,
+            @RequestParam(required = false) Double minRate,
+            @RequestParam(required = false) Double maxRate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (!"all".equalsIgnoreCase(match) && !"any".equalsIgnoreCase(match)) {
+            throw new BadRequestException("match doit valoir all ou any");
+        }
+        GuideSearchCriteria criteria = GuideSearchCriteria.builder()
+                .specialties(specialties)
+                .matchAll("all".equalsIgnoreCase(match))
+                .verified(verified)
+                .agenceVoyageId(agenceVoyageId)
+                .minRate(minRate)
+                .maxRate(maxRate)
+                .build();
+        return ResponseEntity.ok(guideService.searchGuides(criteria, cursor, limit));
+    }
+
+    // Spécialités connues et nombre de guides, pour construire les filtres
+    @GetMapping("/specialties")
+    public ResponseEntity<Map<String, Integer>> getSpecialties() {
+        return ResponseEntity.ok(guideService.getSpecialties());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<GuideDTO> getGuide(@PathVariable Long id) {
+        return ResponseEntity.ok(guideService.getGuide(id));
+    }
+
+    @PutMapping("/me")
+    public ResponseEntity<GuideDTO> saveMyProfile(@RequestBody GuideRequest request,
+                                                  @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(guideService.saveMyProfile(principal.getUser().getId(), request));
+    }
+
+    @PutMapping("/{id}/verified")
+    public ResponseEntity<GuideDTO> setVerified(@PathVariable Long id, @RequestParam boolean verified) {
+        return ResponseEntity.ok(guideService.setVerified(id, verified));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteGuide(@PathVariable Long id) {
+        guideService.deleteGuide(id);
+        return ResponseEntity.noContent().build();
+    }
+}
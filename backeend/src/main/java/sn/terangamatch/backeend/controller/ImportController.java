@@ -0,0 +1,46 @@
+package sn.terangamatch.backeend.controller;
+
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.ImportResultDTO;
+import sn.terangamatch.backeend.service.BulkImportService;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// Corps de requête lu en flux : NDJSON (application/x-ndjson) ou CSV avec en-tête (text/csv)
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping(value = "/users", consumes = {NDJSON, "text/csv"})
+    public ResponseEntity<ImportResultDTO> importUsers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importUsers(request.getInputStream(), isCsv(request)));
+    }
+
+    @PostMapping(value = "/places", consumes = {NDJSON, "text/csv"})
+    public ResponseEntity<ImportResultDTO> importPlaces(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPlaces(request.getInputStream(), isCsv(request)));
+    }
+
+    @PostMapping(value = "/events", consumes = {NDJSON, "text/csv"})
+    public ResponseEntity<ImportResultDTO> importEvents(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importEvents(request.getInputStream(), isCsv(request)));
+    }
+
+    private static boolean isCsv(HttpServletRequest request) {
+        return request.getContentType() != null
+                && MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+    }
+}
@@ -0,0 +1,54 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.cache.CacheRegistry;
+import sn.terangamatch.backeend.cache.CacheStats;
+import sn.terangamatch.backeend.live.LiveScoreBroadcaster;
+import sn.terangamatch.backeend.live.LiveStreamStats;
+import sn.terangamatch.backeend.security.ratelimit.AuthRateLimiter;
+import sn.terangamatch.backeend.security.ratelimit.RateLimitStats;
+import sn.terangamatch.backeend.security.service.BoundedPasswordEncoder;
+import sn.terangamatch.backeend.security.service.HashingPoolStats;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/monitoring")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class MonitoringController {
+
+    private final CacheRegistry cacheRegistry;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final AuthRateLimiter authRateLimiter;
+    private final LiveScoreBroadcaster liveScoreBroadcaster;
+
+    // Taille, hits, misses et évictions de chaque cache mémoire
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheRegistry.stats());
+    }
+
+    // Occupation du pool BCrypt et nombre de requêtes rejetées (429)
+    @GetMapping("/hashing")
+    public ResponseEntity<HashingPoolStats> getHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    // Rejets du limiteur /api/auth par route et par dimension (IP, email)
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitStats> getRateLimitStats() {
+        return ResponseEntity.ok(authRateLimiter.stats());
+    }
+
+    // Abonnés SSE du direct, messages publiés et abonnés coupés
+    @GetMapping("/live")
+    public ResponseEntity<LiveStreamStats> getLiveStats() {
+        return ResponseEntity.ok(liveScoreBroadcaster.stats());
+    }
+}
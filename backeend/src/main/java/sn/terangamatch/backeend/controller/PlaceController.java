@@ -0,0 +1,118 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.ClusterTileDTO;
+import sn.terangamatch.backeend.dto.PlaceDTO;
+import sn.terangamatch.backeend.dto.PlacePageDTO;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+import sn.terangamatch.backeend.service.PlaceService;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/places")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PlaceController {
+
+    private final PlaceService placeService;
+
+    @GetMapping
+    public ResponseEntity<List<PlaceDTO>> getPlaces(@RequestParam(required = false) PlaceType type) {
+        return ResponseEntity.ok(placeService.getPlaces(type));
+    }
+
+    // Ex : /api/places/nearby?lat=14.6928&lng=-17.4467&radius=2000&type=GASTRONOMY
+    @GetMapping("/nearby")
+    public ResponseEntity<PlacePageDTO> nearby(@RequestParam double lat,
+                                               @RequestParam double lng,
+                                               @RequestParam(defaultValue = "5000") double radius,
+                                               @RequestParam(required = false) PlaceType type,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(placeService.findNearby(lat, lng, radius, type, cursor, limit));
+    }
+
+    // Zone visible de la carte
+    @GetMapping("/within")
+    public ResponseEntity<PlacePageDTO> within(@RequestParam double minLat,
+                                               @RequestParam double minLng,
+                                               @RequestParam double maxLat,
+                                               @RequestParam double maxLng,
+                                               @RequestParam(required = false) PlaceType type,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(placeService.findWithinBox(minLat, minLng, maxLat, maxLng, type, cursor, limit));
+    }
+
+    @GetMapping("/top-rated")
+    public ResponseEntity<List<PlaceDTO>> topRated(@RequestParam(defaultValue = "3") int minCount,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(placeService.getTopRated(minCount, limit));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<PlaceDTO>> nearest(@RequestParam double lat,
+                                                  @RequestParam double lng,
+                                                  @RequestParam(defaultValue = "10") int k,
+                                                  @RequestParam(required = false) PlaceType type) {
+        return ResponseEntity.ok(placeService.findNearest(lat, lng, k, type));
+    }
+
+    // Groupes précalculés d'une tuile Web Mercator ; l'ETag ne change qu'à l'écriture d'un lieu
+    @GetMapping("/clusters/{zoom}/{x}/{y}")
+    public ResponseEntity<ClusterTileDTO> clusterTile(@PathVariable int zoom,
+                                                      @PathVariable int x,
+                                                      @PathVariable int y,
+                                                      WebRequest webRequest) {
+        String etag = placeService.getPlacesEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(placeService.getClusterTile(zoom, x, y));
+    }
+
+    @GetMapping("/clusters")
+    public ResponseEntity<List<ClusterTileDTO>> clusters(@RequestParam double minLat,
+                                                         @RequestParam double minLng,
+                                                         @RequestParam double maxLat,
+                                                         @RequestParam double maxLng,
+                                                         @RequestParam int zoom,
+                                                         WebRequest webRequest) {
+        String etag = placeService.getPlacesEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(placeService.getClusters(minLat, minLng, maxLat, maxLng, zoom));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PlaceDTO> getPlace(@PathVariable Long id) {
+        return ResponseEntity.ok(placeService.getPlace(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<PlaceDTO> create(@RequestBody Place place) {
+        return ResponseEntity.ok(placeService.createPlace(place));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<PlaceDTO> update(@PathVariable Long id, @RequestBody Place updated) {
+        return ResponseEntity.ok(placeService.updatePlace(id, updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        placeService.deletePlace(id);
+        return ResponseEntity.noContent().build();
+    }
+}
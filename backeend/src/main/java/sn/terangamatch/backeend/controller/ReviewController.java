@@ -0,0 +1,77 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.RatingSummaryDTO;
+import sn.terangamatch.backeend.dto.ReviewDTO;
+import sn.terangamatch.backeend.dto.ReviewPageDTO;
+import sn.terangamatch.backeend.dto.ReviewRequest;
+import sn.terangamatch.backeend.model.RatingTargetType;
+import sn.terangamatch.backeend.model.UserRole;
+import sn.terangamatch.backeend.security.CustomUserDetails;
+import sn.terangamatch.backeend.service.RatingService;
+import sn.terangamatch.backeend.service.ReviewService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reviews")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReviewController {
+
+    private final ReviewService reviewService;
+    private final RatingService ratingService;
+
+    // Ex : /api/reviews?targetType=PLACE&targetId=12&cursor=...
+    @GetMapping
+    public ResponseEntity<ReviewPageDTO> getReviews(@RequestParam RatingTargetType targetType,
+                                                    @RequestParam Long targetId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.getReviews(targetType, targetId, cursor, limit));
+    }
+
+    // Moyenne et histogramme, lus dans rating_aggregates
+    @GetMapping("/summary")
+    public ResponseEntity<RatingSummaryDTO> getSummary(@RequestParam RatingTargetType targetType,
+                                                       @RequestParam Long targetId) {
+        return ResponseEntity.ok(ratingService.getSummary(targetType, targetId));
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<RatingSummaryDTO>> getTopRated(@RequestParam RatingTargetType targetType,
+                                                              @RequestParam(defaultValue = "3") int minCount,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ratingService.getTopRated(targetType, minCount,
+                Math.max(1, Math.min(limit, ReviewService.MAX_PAGE_SIZE))));
+    }
+
+    @PostMapping
+    public ResponseEntity<ReviewDTO> createReview(@RequestBody ReviewRequest request,
+                                                  @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(reviewService.createReview(principal.getUser().getId(), request));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ReviewDTO> updateReview(@PathVariable Long id,
+                                                  @RequestBody ReviewRequest request,
+                                                  @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(reviewService.updateReview(id, principal.getUser().getId(), isAdmin(principal), request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteReview(@PathVariable Long id,
+                                             @AuthenticationPrincipal CustomUserDetails principal) {
+        reviewService.deleteReview(id, principal.getUser().getId(), isAdmin(principal));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static boolean isAdmin(CustomUserDetails principal) {
+        return principal.getUser().getRole() == UserRole.ADMIN;
+    }
+}
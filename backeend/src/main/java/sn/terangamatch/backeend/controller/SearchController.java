@@ -0,0 +1,36 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.SuggestionDTO;
+import sn.terangamatch.backeend.search.SuggestionIndex;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final SuggestionIndex suggestionIndex;
+
+    // Ex : /api/search/suggest?q=stade%20ab&types=place,event — servi depuis la mémoire, sans requête SQL
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String q,
+                                                       @RequestParam(required = false) Set<String> types,
+                                                       @RequestParam(defaultValue = "8") int limit) {
+        List<SuggestionDTO> suggestions = suggestionIndex.suggest(q, types, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+                .body(suggestions);
+    }
+}
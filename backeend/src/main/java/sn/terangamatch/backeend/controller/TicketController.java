@@ -0,0 +1,76 @@
+package sn.terangamatch.backeend.controller;
+
+
+import lombok.RequiredArgsConstructor;
+import sn.terangamatch.backeend.dto.TicketDTO;
+import sn.terangamatch.backeend.dto.TicketHoldRequest;
+import sn.terangamatch.backeend.dto.TicketTypeDTO;
+import sn.terangamatch.backeend.dto.TicketTypeRequest;
+import sn.terangamatch.backeend.security.CustomUserDetails;
+import sn.terangamatch.backeend.service.TicketService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tickets")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TicketController {
+
+    private final TicketService ticketService;
+
+    @GetMapping("/types")
+    public ResponseEntity<List<TicketTypeDTO>> getTicketTypes(@RequestParam Long eventId) {
+        return ResponseEntity.ok(ticketService.getTicketTypes(eventId));
+    }
+
+    @PostMapping("/types")
+    public ResponseEntity<TicketTypeDTO> createTicketType(@RequestBody TicketTypeRequest request) {
+        return ResponseEntity.ok(ticketService.createTicketType(request));
+    }
+
+    @PutMapping("/types/{id}/quantity")
+    public ResponseEntity<TicketTypeDTO> updateQuantity(@PathVariable Long id, @RequestParam int quantity) {
+        return ResponseEntity.ok(ticketService.updateQuantity(id, quantity));
+    }
+
+    // Bloque des places pour app.tickets.hold-duration ; à confirmer avant expiration
+    @PostMapping("/holds")
+    public ResponseEntity<TicketDTO> hold(@RequestBody TicketHoldRequest request,
+                                          @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(ticketService.hold(principal.getUser().getId(),
+                request.getTicketTypeId(), request.getQuantity()));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<TicketDTO> confirm(@PathVariable Long id,
+                                             @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(ticketService.confirm(id, principal.getUser().getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<TicketDTO> cancel(@PathVariable Long id,
+                                            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(ticketService.cancel(id, principal.getUser().getId()));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<List<TicketDTO>> getMyTickets(@AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(ticketService.getMyTickets(principal.getUser().getId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TicketDTO> getTicket(@PathVariable Long id,
+                                               @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(ticketService.getTicket(id, principal.getUser().getId()));
+    }
+
+    @GetMapping("/code/{code}")
+    public ResponseEntity<TicketDTO> getByCode(@PathVariable String code) {
+        return ResponseEntity.ok(ticketService.getByCode(code));
+    }
+}
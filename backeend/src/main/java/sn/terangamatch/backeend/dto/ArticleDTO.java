@@ -0,0 +1,41 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.Article;
+
+import java.time.LocalDateTime;
+
+// Copie immuable d'un article, partageable entre requêtes (cache)
+@Value
+@Builder
+@With
+public class ArticleDTO {
+    Long id;
+    String title;
+    String excerpt;
+    String content;
+    String image;
+    String author;
+    String category;
+    String readTime;
+    boolean featured;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static ArticleDTO from(Article article) {
+        return ArticleDTO.builder()
+                .id(article.getId())
+                .title(article.getTitle())
+                .excerpt(article.getExcerpt())
+                .content(article.getContent())
+                .image(article.getImage())
+                .author(article.getAuthor())
+                .category(article.getCategory())
+                .readTime(article.getReadTime())
+                .featured(article.isFeatured())
+                .createdAt(article.getCreatedAt())
+                .updatedAt(article.getUpdatedAt())
+                .build();
+    }
+}
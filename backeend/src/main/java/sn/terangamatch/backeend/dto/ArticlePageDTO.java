@@ -0,0 +1,14 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@Value
+@Builder
+@AllArgsConstructor
+public class ArticlePageDTO {
+    List<ArticleSummaryDTO> items;
+    String nextCursor; // null sur la dernière page
+}
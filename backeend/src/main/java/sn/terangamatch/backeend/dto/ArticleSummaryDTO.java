@@ -0,0 +1,29 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Vue "liste" d'un article : jamais de colonne content ; image = variante "card" si disponible
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class ArticleSummaryDTO {
+    Long id;
+    String title;
+    String excerpt;
+    String image;
+    String author;
+    String category;
+    String readTime;
+    boolean featured;
+    LocalDateTime createdAt;
+    String thumbnail; // variante "thumb" de l'image, renseignée après la requête
+
+    // Utilisé par les projections JPQL de ArticleRepository
+    public ArticleSummaryDTO(Long id, String title, String excerpt, String image, String author,
+                             String category, String readTime, boolean featured, LocalDateTime createdAt) {
+        this(id, title, excerpt, image, author, category, readTime, featured, createdAt, null);
+    }
+}
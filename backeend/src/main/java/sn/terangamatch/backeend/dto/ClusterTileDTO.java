@@ -0,0 +1,16 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@Value
+@Builder
+@AllArgsConstructor
+public class ClusterTileDTO {
+    int zoom;
+    int x;
+    int y;
+    List<PlaceClusterDTO> clusters;
+}
@@ -0,0 +1,56 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.Event;
+
+import java.time.LocalDateTime;
+
+// Copie immuable d'un événement, sans le graphe organizer / participants
+@Value
+@Builder
+public class EventDTO {
+    Long id;
+    String title;
+    String description;
+    String location;
+    String type;
+    String category;
+    String status;
+    String price;
+    Long priceAmount;
+    boolean live;
+    int registered;
+    Integer capacity;
+    LocalDateTime date;
+    LocalDateTime startDateTime;
+    LocalDateTime endDateTime;
+    Long organizerId;
+    LiveDataDTO liveData;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static EventDTO from(Event event) {
+        return EventDTO.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .location(event.getLocation())
+                .type(event.getType())
+                .category(event.getCategory())
+                .status(event.getStatus())
+                .price(event.getPrice())
+                .priceAmount(event.getPriceAmount())
+                .live(event.isLive())
+                .registered(event.getRegistered())
+                .capacity(event.getCapacity())
+                .date(event.getDate())
+                .startDateTime(event.getStartDateTime())
+                .endDateTime(event.getEndDateTime())
+                .organizerId(event.getOrganizer() != null ? event.getOrganizer().getId() : null)
+                .liveData(LiveDataDTO.from(event.getLiveData()))
+                .createdAt(event.getCreatedAt())
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package sn.terangamatch.backeend.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.*;
+
+// Vue détail : l'événement à plat, plus l'organisateur ; les participants sont paginés à part
+@Value
+public class EventDetailDTO {
+    @JsonUnwrapped
+    EventDTO event;
+    UserSummaryDTO organizer;
+}
@@ -0,0 +1,21 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Critères de GET /api/events/search ; un champ null n'est pas filtré
+@Value
+@Builder
+public class EventSearchCriteria {
+    String type;
+    String category;
+    String status;
+    String location;
+    LocalDateTime from;
+    LocalDateTime to;
+    Boolean free;
+    Long minPrice;
+    Long maxPrice;
+}
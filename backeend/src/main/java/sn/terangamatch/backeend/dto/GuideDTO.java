@@ -0,0 +1,19 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@Value
+@Builder
+public class GuideDTO {
+    Long id;
+    String displayName;
+    String photoUrl;
+    List<String> specialties;
+    Double hourlyRate;
+    Double ratingAvg;
+    boolean verified;
+    Long agenceVoyageId;
+}
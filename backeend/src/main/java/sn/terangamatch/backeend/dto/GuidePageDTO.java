@@ -0,0 +1,15 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@Value
+@Builder
+@AllArgsConstructor
+public class GuidePageDTO {
+    List<GuideDTO> items;
+    int total;
+    String nextCursor; // null sur la dernière page
+}
@@ -0,0 +1,13 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GuideRequest {
+    private List<String> specialties;
+    private Double hourlyRate;
+    private Long agenceVoyageId;
+}
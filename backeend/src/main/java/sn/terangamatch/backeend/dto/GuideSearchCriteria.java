@@ -0,0 +1,18 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+// Critères de GET /api/guides/search ; un champ null n'est pas filtré
+@Value
+@Builder
+public class GuideSearchCriteria {
+    List<String> specialties;
+    boolean matchAll;   // true : toutes les spécialités, false : au moins une
+    Boolean verified;
+    Long agenceVoyageId;
+    Double minRate;
+    Double maxRate;
+}
@@ -0,0 +1,20 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportResultDTO {
+    private String entity;
+    private int imported;
+    private int rejected;
+    private int chunks;
+    @Builder.Default
+    private List<String> errors = new ArrayList<>(); // limitées aux premières lignes en erreur
+}
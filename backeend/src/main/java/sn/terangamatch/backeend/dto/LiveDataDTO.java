@@ -0,0 +1,20 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.LiveData;
+
+@Value
+@Builder
+public class LiveDataDTO {
+    String homeTeam;
+    String awayTeam;
+    String score;
+
+    public static LiveDataDTO from(LiveData liveData) {
+        if (liveData == null) {
+            return null;
+        }
+        return new LiveDataDTO(liveData.getHomeTeam(), liveData.getAwayTeam(), liveData.getScore());
+    }
+}
@@ -0,0 +1,17 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Message poussé aux abonnés du direct : status et score, pas l'événement entier
+@Value
+@Builder
+public class LiveUpdateDTO {
+    Long eventId;
+    String status;
+    boolean live;
+    LiveDataDTO liveData;
+    LocalDateTime updatedAt;
+}
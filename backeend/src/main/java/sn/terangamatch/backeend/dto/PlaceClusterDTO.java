@@ -0,0 +1,17 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.PlaceType;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class PlaceClusterDTO {
+    double latitude;   // barycentre des lieux du groupe
+    double longitude;
+    int count;
+    Map<PlaceType, Integer> types;
+    Long placeId;      // renseigné quand le groupe ne contient qu'un lieu
+}
@@ -0,0 +1,36 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+
+@Value
+@Builder
+@With
+public class PlaceDTO {
+    Long id;
+    String name;
+    String description;
+    PlaceType type;
+    String address;
+    Double latitude;
+    Double longitude;
+    String openingHours;
+    Double distanceMeters; // renseignée par les recherches géographiques uniquement
+    Double ratingAvg;      // lus dans rating_aggregates
+    Integer ratingCount;
+
+    public static PlaceDTO from(Place place) {
+        return PlaceDTO.builder()
+                .id(place.getId())
+                .name(place.getName())
+                .description(place.getDescription())
+                .type(place.getType())
+                .address(place.getAddress())
+                .latitude(place.getLatitude())
+                .longitude(place.getLongitude())
+                .openingHours(place.getOpeningHours())
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.RatingAggregate;
+import sn.terangamatch.backeend.model.RatingTargetType;
+
+import java.util.List;
+
+@Value
+@Builder
+public class RatingSummaryDTO {
+    RatingTargetType targetType;
+    Long targetId;
+    int count;
+    Double average;
+    List<Integer> stars; // stars.get(0) = avis à 1 étoile ... stars.get(4) = 5 étoiles
+
+    public static RatingSummaryDTO from(RatingAggregate aggregate) {
+        return RatingSummaryDTO.builder()
+                .targetType(aggregate.getTarget().getTargetType())
+                .targetId(aggregate.getTarget().getTargetId())
+                .count(aggregate.getReviewCount())
+                .average(aggregate.getRatingAvg())
+                .stars(List.of(aggregate.getStar1(), aggregate.getStar2(), aggregate.getStar3(),
+                        aggregate.getStar4(), aggregate.getStar5()))
+                .build();
+    }
+
+    public static RatingSummaryDTO empty(RatingTargetType targetType, Long targetId) {
+        return RatingSummaryDTO.builder()
+                .targetType(targetType)
+                .targetId(targetId)
+                .count(0)
+                .stars(List.of(0, 0, 0, 0, 0))
+                .build();
+    }
+}
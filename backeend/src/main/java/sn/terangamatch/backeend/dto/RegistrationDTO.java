@@ -0,0 +1,14 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+@Value
+@Builder
+public class RegistrationDTO {
+    Long eventId;
+    boolean participant;
+    int registered;
+    Integer capacity;
+    Integer remainingSeats; // null si la capacité est illimitée
+}
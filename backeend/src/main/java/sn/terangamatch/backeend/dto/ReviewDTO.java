@@ -0,0 +1,37 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.RatingTargetType;
+import sn.terangamatch.backeend.model.Review;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class ReviewDTO {
+    Long id;
+    Integer rating;
+    String comment;
+    LocalDateTime createdAt;
+    Long authorId;
+    RatingTargetType targetType;
+    Long targetId;
+
+    public static ReviewDTO from(Review review) {
+        ReviewDTOBuilder builder = ReviewDTO.builder()
+                .id(review.getId())
+                .rating(review.getRating())
+                .comment(review.getComment())
+                .createdAt(review.getCreatedAt())
+                .authorId(review.getAuthor() != null ? review.getAuthor().getId() : null);
+        if (review.getGuide() != null) {
+            builder.targetType(RatingTargetType.GUIDE).targetId(review.getGuide().getId());
+        } else if (review.getPlace() != null) {
+            builder.targetType(RatingTargetType.PLACE).targetId(review.getPlace().getId());
+        } else if (review.getEvent() != null) {
+            builder.targetType(RatingTargetType.EVENT).targetId(review.getEvent().getId());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,13 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.Data;
+import sn.terangamatch.backeend.model.RatingTargetType;
+
+@Data
+public class ReviewRequest {
+    private RatingTargetType targetType; // ignoré en modification
+    private Long targetId;
+    private Integer rating;              // 1 à 5
+    private String comment;
+}
@@ -0,0 +1,11 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+// À passer en ?access_token= aux flux SSE ; en redemander un avant chaque reconnexion après expiration
+@Value
+public class StreamTokenDTO {
+    String token;
+    long expiresInSeconds;
+}
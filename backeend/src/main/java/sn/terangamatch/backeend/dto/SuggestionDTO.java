@@ -0,0 +1,13 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+@Value
+@Builder
+public class SuggestionDTO {
+    String kind;   // "place", "event", "article"
+    Long id;
+    String label;
+    String detail; // adresse, lieu ou catégorie selon le type
+}
@@ -0,0 +1,51 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.model.Ticket;
+import sn.terangamatch.backeend.model.TicketStatus;
+import sn.terangamatch.backeend.model.TicketType;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class TicketDTO {
+    Long id;
+    String code;
+    TicketStatus status;
+    int quantity;
+    Long ticketTypeId;
+    String ticketTypeName;
+    Long unitPrice;
+    Long eventId;
+    String eventTitle;
+    String location;
+    LocalDateTime eventDate;
+    LocalDateTime holdExpiresAt;
+    LocalDateTime confirmedAt;
+    LocalDateTime createdAt;
+
+    // Le type et l'événement doivent être chargés (voir TicketRepository.find...WithEvent)
+    public static TicketDTO from(Ticket ticket) {
+        TicketType ticketType = ticket.getTicketType();
+        Event event = ticketType.getEvent();
+        return TicketDTO.builder()
+                .id(ticket.getId())
+                .code(ticket.getCode())
+                .status(ticket.getStatus())
+                .quantity(ticket.getQuantity())
+                .ticketTypeId(ticketType.getId())
+                .ticketTypeName(ticketType.getName())
+                .unitPrice(ticketType.getPrice())
+                .eventId(event.getId())
+                .eventTitle(event.getTitle())
+                .location(event.getLocation())
+                .eventDate(event.getDate())
+                .holdExpiresAt(ticket.getHoldExpiresAt())
+                .confirmedAt(ticket.getConfirmedAt())
+                .createdAt(ticket.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.Data;
+
+@Data
+public class TicketHoldRequest {
+    private Long ticketTypeId;
+    private int quantity = 1;
+}
@@ -0,0 +1,27 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+import sn.terangamatch.backeend.model.TicketType;
+
+@Value
+@Builder
+public class TicketTypeDTO {
+    Long id;
+    Long eventId;
+    String name;
+    Long price;
+    int quantity;
+    int available; // depuis l'inventaire mémoire, toujours à jour
+
+    public static TicketTypeDTO from(TicketType ticketType, int available) {
+        return TicketTypeDTO.builder()
+                .id(ticketType.getId())
+                .eventId(ticketType.getEvent().getId())
+                .name(ticketType.getName())
+                .price(ticketType.getPrice())
+                .quantity(ticketType.getQuantity())
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.Data;
+
+@Data
+public class TicketTypeRequest {
+    private Long eventId;
+    private String name;
+    private Long price;
+    private int quantity;
+}
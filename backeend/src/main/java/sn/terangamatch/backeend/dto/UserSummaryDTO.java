@@ -0,0 +1,12 @@
+package sn.terangamatch.backeend.dto;
+
+
+import lombok.*;
+
+// Identité publique d'un utilisateur (organisateur, participant) : jamais l'email ni le mot de passe
+@Value
+public class UserSummaryDTO {
+    Long id;
+    String displayName;
+    String photoUrl;
+}
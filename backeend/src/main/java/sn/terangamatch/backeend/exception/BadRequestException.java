@@ -0,0 +1,10 @@
+package sn.terangamatch.backeend.exception;
+
+
+// Paramètre ou contenu de requête invalide, message destiné au client : 400
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
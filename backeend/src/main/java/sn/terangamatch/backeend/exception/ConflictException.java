@@ -0,0 +1,10 @@
+package sn.terangamatch.backeend.exception;
+
+
+// Requête valide mais incompatible avec l'état courant (événement complet...) : 409
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
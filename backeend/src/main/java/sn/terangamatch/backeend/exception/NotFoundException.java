@@ -0,0 +1,10 @@
+package sn.terangamatch.backeend.exception;
+
+
+// Ressource demandée inexistante : 404
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package sn.terangamatch.backeend.exception;
+
+
+// Fichier envoyé au-delà de la taille autorisée : 413
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
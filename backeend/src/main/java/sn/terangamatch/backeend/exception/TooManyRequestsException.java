@@ -0,0 +1,16 @@
+package sn.terangamatch.backeend.exception;
+
+
+import lombok.Getter;
+
+// Traduite en 429 + Retry-After par GlobalExceptionHandler
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
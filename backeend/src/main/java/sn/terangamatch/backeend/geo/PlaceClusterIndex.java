@@ -0,0 +1,257 @@
+package sn.terangamatch.backeend.geo;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.dto.ClusterTileDTO;
+import sn.terangamatch.backeend.dto.PlaceClusterDTO;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+import sn.terangamatch.backeend.repository.PlaceRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Regroupement des lieux par niveau de zoom, précalculé. À chaque zoom, les tuiles Web Mercator
+ * (256 px) sont découpées en app.places.clusters.cells-per-tile × cells-per-tile cellules ; les
+ * cellules d'un zoom s'emboîtent exactement dans celles du zoom inférieur. Chaque lieu compte dans
+ * une cellule par niveau : ajouter, déplacer ou retirer un lieu coûte O(nombre de niveaux).
+ */
+@Slf4j
+@Component
+public class PlaceClusterIndex {
+
+    private static final PlaceType[] TYPES = PlaceType.values();
+    // Dernière latitude représentable en Web Mercator
+    private static final double MAX_LATITUDE = 85.05112878;
+    public static final int MAX_REQUEST_ZOOM = 22;
+
+    private record Entry(double latitude, double longitude, PlaceType type) {
+    }
+
+    private static final class Cluster {
+        int count;
+        double latitudeSum;
+        double longitudeSum;
+        final int[] typeCounts = new int[TYPES.length + 1]; // dernier indice : type inconnu
+    }
+
+    private final PlaceRepository placeRepository;
+    private final int maxZoom;
+    private final int cellsPerTile;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // zoom -> (cellule -> agrégat)
+    private final List<Map<Long, Cluster>> levels = new ArrayList<>();
+    // Lieux par cellule du zoom maximal, pour identifier un groupe d'un seul lieu
+    private final Map<Long, Set<Long>> leaves = new HashMap<>();
+
+    public PlaceClusterIndex(PlaceRepository placeRepository,
+                             @Value("${app.places.clusters.max-zoom:16}") int maxZoom,
+                             @Value("${app.places.clusters.cells-per-tile:8}") int cellsPerTile) {
+        this.placeRepository = placeRepository;
+        this.maxZoom = maxZoom;
+        this.cellsPerTile = cellsPerTile;
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<PlaceRepository.PlaceLocation> locations = placeRepository.findAllLocations();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            leaves.clear();
+            levels.forEach(Map::clear);
+            locations.forEach(location -> add(location.getId(),
+                    new Entry(location.getLatitude(), location.getLongitude(), location.getType())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Groupes de lieux précalculés ({} lieux, zoom 0 à {})", locations.size(), maxZoom);
+    }
+
+    public void index(Place place) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(place.getId());
+            if (place.getLatitude() != null && place.getLongitude() != null) {
+                add(place.getId(), new Entry(place.getLatitude(), place.getLongitude(), place.getType()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long placeId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(placeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    // Groupes d'une tuile z/x/y ; au-delà du zoom maximal, ceux de la tuile parente situés dans la tuile
+    public ClusterTileDTO tile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_REQUEST_ZOOM) {
+            throw new BadRequestException("Zoom invalide (0 à " + MAX_REQUEST_ZOOM + ")");
+        }
+        int tiles = 1 << zoom;
+        if (x < 0 || y < 0 || x >= tiles || y >= tiles) {
+            throw new BadRequestException("Tuile invalide");
+        }
+        int level = Math.min(zoom, maxZoom);
+        int shift = zoom - level;
+        int parentX = x >> shift;
+        int parentY = y >> shift;
+
+        List<PlaceClusterDTO> clusters = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Cluster> cells = levels.get(level);
+            for (int cy = parentY * cellsPerTile; cy < (parentY + 1) * cellsPerTile; cy++) {
+                for (int cx = parentX * cellsPerTile; cx < (parentX + 1) * cellsPerTile; cx++) {
+                    Cluster cluster = cells.get(key(cx, cy));
+                    if (cluster == null || cluster.count == 0) {
+                        continue;
+                    }
+                    double latitude = cluster.latitudeSum / cluster.count;
+                    double longitude = cluster.longitudeSum / cluster.count;
+                    if (shift > 0 && (tileOf(longitudeToX(longitude, zoom)) != x || tileOf(latitudeToY(latitude, zoom)) != y)) {
+                        continue;
+                    }
+                    clusters.add(toDTO(cluster, latitude, longitude));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ClusterTileDTO(zoom, x, y, clusters);
+    }
+
+    // Tuiles (x, y) du zoom donné couvrant un rectangle géographique
+    public List<int[]> tilesCovering(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int zoom) {
+        int fromX = tileOf(longitudeToX(minLongitude, zoom));
+        int toX = tileOf(longitudeToX(maxLongitude, zoom));
+        int fromY = tileOf(latitudeToY(maxLatitude, zoom));
+        int toY = tileOf(latitudeToY(minLatitude, zoom));
+        int last = (1 << zoom) - 1;
+        List<int[]> tiles = new ArrayList<>();
+        for (int ty = Math.max(0, fromY); ty <= Math.min(last, toY); ty++) {
+            for (int tx = Math.max(0, fromX); tx <= Math.min(last, toX); tx++) {
+                tiles.add(new int[]{tx, ty});
+            }
+        }
+        return tiles;
+    }
+
+    private PlaceClusterDTO toDTO(Cluster cluster, double latitude, double longitude) {
+        Map<PlaceType, Integer> types = new EnumMap<>(PlaceType.class);
+        for (int i = 0; i < TYPES.length; i++) {
+            if (cluster.typeCounts[i] > 0) {
+                types.put(TYPES[i], cluster.typeCounts[i]);
+            }
+        }
+        Long placeId = null;
+        if (cluster.count == 1) {
+            Set<Long> leaf = leaves.get(cellKey(latitude, longitude, maxZoom));
+            if (leaf != null && leaf.size() == 1) {
+                placeId = leaf.iterator().next();
+            }
+        }
+        return PlaceClusterDTO.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .count(cluster.count)
+                .types(types)
+                .placeId(placeId)
+                .build();
+    }
+
+    private void add(Long id, Entry entry) {
+        if (id == null || Math.abs(entry.latitude()) > MAX_LATITUDE) {
+            return;
+        }
+        entries.put(id, entry);
+        apply(entry, 1);
+        leaves.computeIfAbsent(cellKey(entry.latitude(), entry.longitude(), maxZoom), k -> new HashSet<>()).add(id);
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        apply(entry, -1);
+        long leafKey = cellKey(entry.latitude(), entry.longitude(), maxZoom);
+        Set<Long> leaf = leaves.get(leafKey);
+        if (leaf != null) {
+            leaf.remove(id);
+            if (leaf.isEmpty()) {
+                leaves.remove(leafKey);
+            }
+        }
+    }
+
+    private void apply(Entry entry, int delta) {
+        int typeIndex = entry.type() != null ? entry.type().ordinal() : TYPES.length;
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            long key = cellKey(entry.latitude(), entry.longitude(), zoom);
+            Map<Long, Cluster> cells = levels.get(zoom);
+            Cluster cluster = cells.computeIfAbsent(key, k -> new Cluster());
+            cluster.count += delta;
+            cluster.latitudeSum += delta * entry.latitude();
+            cluster.longitudeSum += delta * entry.longitude();
+            cluster.typeCounts[typeIndex] += delta;
+            if (cluster.count <= 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cellKey(double latitude, double longitude, int zoom) {
+        int cx = (int) Math.floor(longitudeToX(longitude, zoom) * cellsPerTile);
+        int cy = (int) Math.floor(latitudeToY(latitude, zoom) * cellsPerTile);
+        int limit = (1 << zoom) * cellsPerTile - 1;
+        return key(Math.min(Math.max(cx, 0), limit), Math.min(Math.max(cy, 0), limit));
+    }
+
+    // Coordonnées Web Mercator exprimées en tuiles du zoom donné
+    private static double longitudeToX(double longitude, int zoom) {
+        return (longitude + 180) / 360 * (1 << zoom);
+    }
+
+    private static double latitudeToY(double latitude, int zoom) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double radians = Math.toRadians(clamped);
+        return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2 * (1 << zoom);
+    }
+
+    private static int tileOf(double coordinate) {
+        return (int) Math.floor(coordinate);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
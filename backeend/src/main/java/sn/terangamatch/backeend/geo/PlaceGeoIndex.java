@@ -0,0 +1,285 @@
+package sn.terangamatch.backeend.geo;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+import sn.terangamatch.backeend.repository.PlaceRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grille régulière en mémoire (cellules de app.places.geo.cell-degrees) sur les coordonnées
+ * des lieux. Une requête ne parcourt que les cellules qui recoupent la zone cherchée ; les
+ * k plus proches sont trouvés par anneaux de cellules autour du point, jusqu'à ce qu'aucune
+ * cellule non visitée ne puisse contenir un lieu plus proche que le k-ième trouvé.
+ */
+@Slf4j
+@Component
+public class PlaceGeoIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    public record GeoHit(Long id, double distanceMeters) {
+    }
+
+    public record GeoHits(List<GeoHit> hits, int total) {
+    }
+
+    private record Entry(Long id, double latitude, double longitude, PlaceType type) {
+    }
+
+    private final PlaceRepository placeRepository;
+    private final double cellDegrees;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // clé de cellule (ligne, colonne) -> lieux de la cellule
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    // Emprise des cellules occupées, pour borner la recherche par anneaux
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+
+    public PlaceGeoIndex(PlaceRepository placeRepository,
+                         @Value("${app.places.geo.cell-degrees:0.01}") double cellDegrees) {
+        this.placeRepository = placeRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<PlaceRepository.PlaceLocation> locations = placeRepository.findAllLocations();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            cells.clear();
+            minRow = minCol = Integer.MAX_VALUE;
+            maxRow = maxCol = Integer.MIN_VALUE;
+            locations.forEach(location -> add(location.getId(), location.getLatitude(), location.getLongitude(), location.getType()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index géographique des lieux construit ({} lieux)", entries.size());
+    }
+
+    public void index(Place place) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(place.getId());
+            add(place.getId(), place.getLatitude(), place.getLongitude(), place.getType());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long placeId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(placeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lieux à moins de radiusMeters, du plus proche au plus lointain
+    public GeoHits withinRadius(double latitude, double longitude, double radiusMeters, PlaceType type, int offset, int limit) {
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        double lonSpan = Math.min(180, latSpan / Math.max(Math.cos(Math.toRadians(latitude)), 1e-6));
+        List<GeoHit> hits = collect(latitude - latSpan, longitude - lonSpan, latitude + latSpan, longitude + lonSpan,
+                type, latitude, longitude, radiusMeters);
+        return page(hits, offset, limit);
+    }
+
+    // Lieux dans le rectangle, triés par distance à son centre
+    public GeoHits withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                             PlaceType type, int offset, int limit) {
+        double centerLatitude = (minLatitude + maxLatitude) / 2;
+        double centerLongitude = (minLongitude + maxLongitude) / 2;
+        List<GeoHit> hits = collect(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                type, centerLatitude, centerLongitude, Double.POSITIVE_INFINITY);
+        return page(hits, offset, limit);
+    }
+
+    public List<GeoHit> nearest(double latitude, double longitude, int k, PlaceType type) {
+        lock.readLock().lock();
+        try {
+            if (entries.isEmpty() || k <= 0) {
+                return List.of();
+            }
+            int row = row(latitude);
+            int col = col(longitude);
+            // Distance minimale garantie jusqu'au bord d'un anneau, en mètres, par cellule
+            double cellMeters = cellDegrees * METERS_PER_DEGREE
+                    * Math.max(Math.cos(Math.toRadians(Math.abs(latitude) + cellDegrees)), 1e-6);
+            List<GeoHit> candidates = new ArrayList<>();
+            for (int ring = 0; ; ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    for (int c = col - ring; c <= col + ring; c++) {
+                        if (Math.max(Math.abs(r - row), Math.abs(c - col)) == ring) {
+                            scanCell(r, c, type, latitude, longitude, Double.POSITIVE_INFINITY, candidates);
+                        }
+                    }
+                }
+                if (candidates.size() >= k) {
+                    candidates.sort(Comparator.comparingDouble(GeoHit::distanceMeters));
+                    if (candidates.get(k - 1).distanceMeters() <= ring * cellMeters) {
+                        break;
+                    }
+                }
+                if (row - ring <= minRow && row + ring >= maxRow && col - ring <= minCol && col + ring >= maxCol) {
+                    break;
+                }
+            }
+            candidates.sort(Comparator.comparingDouble(GeoHit::distanceMeters));
+            return List.copyOf(candidates.subList(0, Math.min(k, candidates.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private List<GeoHit> collect(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                 PlaceType type, double centerLatitude, double centerLongitude, double maxDistance) {
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new BadRequestException("Zone géographique invalide");
+        }
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int fromRow = Math.max(row(minLatitude), minRow);
+            int toRow = Math.min(row(maxLatitude), maxRow);
+            int fromCol = Math.max(col(minLongitude), minCol);
+            int toCol = Math.min(col(maxLongitude), maxCol);
+            if (toRow < fromRow || toCol < fromCol) {
+                return hits;
+            }
+            if ((long) (toRow - fromRow + 1) * (toCol - fromCol + 1) > cells.size()) {
+                // Zone très large : moins coûteux de parcourir les cellules occupées
+                cells.values().forEach(cell -> cell.forEach(entry ->
+                        accept(entry, minLatitude, minLongitude, maxLatitude, maxLongitude, type,
+                                centerLatitude, centerLongitude, maxDistance, hits)));
+            } else {
+                for (int r = fromRow; r <= toRow; r++) {
+                    for (int c = fromCol; c <= toCol; c++) {
+                        List<Entry> cell = cells.get(key(r, c));
+                        if (cell != null) {
+                            cell.forEach(entry -> accept(entry, minLatitude, minLongitude, maxLatitude, maxLongitude, type,
+                                    centerLatitude, centerLongitude, maxDistance, hits));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(GeoHit::distanceMeters));
+        return hits;
+    }
+
+    private static void accept(Entry entry, double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                               PlaceType type, double centerLatitude, double centerLongitude, double maxDistance,
+                               List<GeoHit> hits) {
+        if (entry.latitude() < minLatitude || entry.latitude() > maxLatitude
+                || entry.longitude() < minLongitude || entry.longitude() > maxLongitude
+                || (type != null && type != entry.type())) {
+            return;
+        }
+        double distance = distanceMeters(centerLatitude, centerLongitude, entry.latitude(), entry.longitude());
+        if (distance <= maxDistance) {
+            hits.add(new GeoHit(entry.id(), distance));
+        }
+    }
+
+    private void scanCell(int r, int c, PlaceType type, double latitude, double longitude, double maxDistance, List<GeoHit> hits) {
+        List<Entry> cell = cells.get(key(r, c));
+        if (cell == null) {
+            return;
+        }
+        for (Entry entry : cell) {
+            if (type == null || type == entry.type()) {
+                double distance = distanceMeters(latitude, longitude, entry.latitude(), entry.longitude());
+                if (distance <= maxDistance) {
+                    hits.add(new GeoHit(entry.id(), distance));
+                }
+            }
+        }
+    }
+
+    private static GeoHits page(List<GeoHit> hits, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), hits.size());
+        int to = Math.min(from + Math.max(limit, 0), hits.size());
+        return new GeoHits(List.copyOf(hits.subList(from, to)), hits.size());
+    }
+
+    private void add(Long id, Double latitude, Double longitude, PlaceType type) {
+        if (id == null || latitude == null || longitude == null) {
+            return;
+        }
+        Entry entry = new Entry(id, latitude, longitude, type);
+        entries.put(id, entry);
+        int r = row(latitude);
+        int c = col(longitude);
+        cells.computeIfAbsent(key(r, c), k -> new ArrayList<>()).add(entry);
+        minRow = Math.min(minRow, r);
+        maxRow = Math.max(maxRow, r);
+        minCol = Math.min(minCol, c);
+        maxCol = Math.max(maxCol, c);
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        long key = key(row(entry.latitude()), col(entry.longitude()));
+        List<Entry> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(entry);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,374 @@
+package sn.terangamatch.backeend.live;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sn.terangamatch.backeend.dto.LiveUpdateDTO;
+import sn.terangamatch.backeend.exception.TooManyRequestsException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diffusion SSE des scores en direct. Un abonné inactif ne coûte qu'une requête asynchrone
+ * Tomcat (aucun thread) et une petite file bornée. Chaque message est sérialisé une seule fois
+ * puis déposé dans la file de chaque abonné ; un pool restreint vide les files. Un abonné dont
+ * la file déborde est trop lent : sa connexion est fermée. Le client rouvre alors le flux avec un
+ * nouveau jeton de flux (subscribeLiveScores côté front) : la reconnexion automatique d'EventSource
+ * repartirait avec le jeton expiré de l'URL et serait refusée.
+ * L'écriture sur la socket reste bloquante : un envoi qui dépasse app.live.send-timeout est
+ * abandonné (abonné retiré, thread interrompu) et un thread est ajouté au pool tant que
+ * l'envoi bloqué n'a pas rendu la main, pour qu'un client figé n'immobilise pas la diffusion.
+ */
+@Slf4j
+@Component
+public class LiveScoreBroadcaster {
+
+    private static final String UPDATE_EVENT = "live-score";
+
+    // Trame SSE déjà construite, partagée entre tous les abonnés
+    private static final class Frame {
+        final Set<ResponseBodyEmitter.DataWithMediaType> data;
+
+        Frame(SseEmitter.SseEventBuilder builder) {
+            this.data = Collections.unmodifiableSet(builder.build());
+        }
+    }
+
+    private static final Frame HEARTBEAT = new Frame(SseEmitter.event().comment("ping"));
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor sender;
+    private final int senderThreads;
+    private final int maxStalledSends;
+    private final long sendTimeoutNanos;
+    private final long emitterTimeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    // Abonnés d'un événement donné, et abonnés à tous les directs
+    private final Map<Long, Set<Subscriber>> byEvent = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allLive = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Abonnés dont un envoi est en cours, seuls surveillés par checkStalledSends
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    // Envois abandonnés dont le thread n'est pas encore revenu (threads ajoutés au pool)
+    private final AtomicInteger stalledSends = new AtomicInteger();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public LiveScoreBroadcaster(ObjectMapper objectMapper,
+                                @Value("${app.live.sender-threads:4}") int senderThreads,
+                                @Value("${app.live.send-timeout:5s}") Duration sendTimeout,
+                                @Value("${app.live.max-stalled-sends:64}") int maxStalledSends,
+                                @Value("${app.live.emitter-timeout:30m}") Duration emitterTimeout,
+                                @Value("${app.live.buffer-size:16}") int bufferSize,
+                                @Value("${app.live.max-subscribers:20000}") int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.senderThreads = senderThreads;
+        this.maxStalledSends = maxStalledSends;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger counter = new AtomicInteger();
+        // Au plus une tâche en attente par abonné : la file du pool est bornée par maxSubscribers
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxSubscribers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "live-sender-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // eventId null : tous les événements en direct
+    public SseEmitter subscribe(Long eventId, LiveUpdateDTO initialState) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManyRequestsException("Trop d'abonnés au direct, réessayez plus tard", 30);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, eventId);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+        if (eventId == null) {
+            allLive.add(subscriber);
+        } else {
+            // Ajout sous le verrou de la clé : detach() peut retirer l'ensemble vide en parallèle
+            byEvent.compute(eventId, (key, subscribers) -> {
+                Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                target.add(subscriber);
+                return target;
+            });
+        }
+        if (initialState != null) {
+            Frame frame = toFrame(initialState);
+            if (frame != null) {
+                subscriber.offer(frame);
+            }
+        }
+        return emitter;
+    }
+
+    // Appelé après l'écriture ; ne bloque jamais l'appelant
+    public void publish(LiveUpdateDTO update) {
+        Frame frame = toFrame(update);
+        if (frame == null) {
+            return;
+        }
+        published.increment();
+        Set<Subscriber> eventSubscribers = byEvent.get(update.getEventId());
+        if (eventSubscribers != null) {
+            eventSubscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+        allLive.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    // Garde les connexions ouvertes à travers les proxys et détecte les clients partis
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        byEvent.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+        allLive.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    // Envoi bloqué au-delà du délai : l'abonné est retiré et son thread remplacé jusqu'à son retour
+    @Scheduled(fixedDelayString = "${app.live.send-check-interval-ms:1000}")
+    public void checkStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            if (subscriber.isSendStalled(now)) {
+                subscriber.abandon();
+            }
+        }
+    }
+
+    public LiveStreamStats stats() {
+        return new LiveStreamStats(subscriberCount.get(), maxSubscribers, published.sum(), dropped.sum(),
+                stalledSends.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        byEvent.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        allLive.forEach(Subscriber::close);
+    }
+
+    private Frame toFrame(LiveUpdateDTO update) {
+        try {
+            String json = objectMapper.writeValueAsString(update);
+            return new Frame(SseEmitter.event()
+                    .name(UPDATE_EVENT)
+                    .data(json, MediaType.APPLICATION_JSON));
+        } catch (JsonProcessingException e) {
+            log.warn("Sérialisation impossible de la mise à jour live {}", update.getEventId(), e);
+            return null;
+        }
+    }
+
+    // Agrandir : maximum puis cœur ; réduire : cœur puis maximum (toujours cœur <= maximum)
+    private synchronized void resizeSender(int delta) {
+        int size = Math.max(senderThreads, sender.getCorePoolSize() + delta);
+        if (delta > 0) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long eventId;
+        private final BlockingQueue<Frame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean abandoned = new AtomicBoolean();
+        // Fermeture demandée hors du thread d'envoi : c'est drain() qui appellera complete()
+        private final AtomicBoolean completePending = new AtomicBoolean();
+        // Renseignés pendant emitter.send, sous le verrou de l'abonné
+        private Thread sendingThread;
+        private long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Long eventId) {
+            this.emitter = emitter;
+            this.eventId = eventId;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                dropped.increment();
+                closeFromPublisher();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Les trames restent en file ; le prochain message ou heartbeat relancera l'envoi
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while (!closed.get() && (frame = queue.poll()) != null) {
+                    beginSend();
+                    try {
+                        emitter.send(frame.data);
+                    } finally {
+                        endSend();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                dropped.increment();
+                close();
+            } finally {
+                draining.set(false);
+                boolean abandonedSend = abandoned.compareAndSet(true, false);
+                // L'envoi bloqué a rendu la main, ou une fermeture attendait la fin de l'envoi
+                if (abandonedSend | (closed.get() && completePending.compareAndSet(true, false))) {
+                    completeQuietly();
+                }
+                if (abandonedSend) {
+                    // Le pool reprend sa taille
+                    releaseStalledThread();
+                }
+            }
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized void beginSend() {
+            sendingThread = Thread.currentThread();
+            sendStartedAt = System.nanoTime();
+            sending.add(this);
+        }
+
+        private void endSend() {
+            synchronized (this) {
+                sendingThread = null;
+                sending.remove(this);
+            }
+            // Une interruption par abandon() ne doit pas atteindre la tâche suivante du thread
+            Thread.interrupted();
+        }
+
+        synchronized boolean isSendStalled(long now) {
+            return sendingThread != null && now - sendStartedAt > sendTimeoutNanos;
+        }
+
+        // Appelé par checkStalledSends : ni send ni complete ici, ils attendraient l'écriture bloquée.
+        // L'abonné peut déjà être détaché (file pleine) : le thread bloqué est compensé quand même
+        void abandon() {
+            boolean detached = detach();
+            if (detached) {
+                dropped.increment();
+            }
+            synchronized (this) {
+                if (sendingThread != null && !abandoned.get()) {
+                    // Sous le verrou : endSend ne peut pas passer avant, drain() verra abandoned
+                    if (stalledSends.incrementAndGet() <= maxStalledSends) {
+                        resizeSender(+1);
+                    } else {
+                        log.warn("Plus de {} envois SSE bloqués : pool d'envoi non agrandi", maxStalledSends);
+                    }
+                    abandoned.set(true);
+                    sendingThread.interrupt();
+                    return;
+                }
+            }
+            // L'envoi s'est terminé entre-temps : rien n'est bloqué, on ferme simplement
+            if (detached) {
+                completeQuietly();
+            }
+        }
+
+        private void releaseStalledThread() {
+            if (stalledSends.getAndDecrement() <= maxStalledSends) {
+                resizeSender(-1);
+            }
+        }
+
+        private void completeQuietly() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Fermeture d'un flux SSE abandonné", e);
+            }
+        }
+
+        // Depuis le thread d'envoi (ou à l'arrêt), où aucun autre envoi ne peut être en cours
+        void close() {
+            if (detach()) {
+                emitter.complete();
+            }
+        }
+
+        // Depuis un thread qui publie (updateEvent, tick, heartbeat) : complete() y attendrait
+        // le verrou d'écriture d'un envoi peut-être bloqué, on le laisse donc à drain()
+        private void closeFromPublisher() {
+            if (detach()) {
+                completePending.set(true);
+                scheduleDrain();
+            }
+        }
+
+        // Retire l'abonné des index ; true au premier appel seulement
+        boolean detach() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            queue.clear();
+            if (eventId == null) {
+                allLive.remove(this);
+            } else {
+                byEvent.computeIfPresent(eventId, (key, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package sn.terangamatch.backeend.live;
+
+
+import lombok.Value;
+
+@Value
+public class LiveStreamStats {
+    int subscribers;
+    int maxSubscribers;
+    long published;
+    long dropped; // abonnés fermés car trop lents (file pleine, envoi bloqué) ou déconnectés
+    int stalledSends; // envois bloqués abandonnés dont le thread n'est pas encore revenu
+}
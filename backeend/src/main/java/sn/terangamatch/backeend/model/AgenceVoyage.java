@@ -14,7 +14,8 @@ import java.util.List;
 public class AgenceVoyage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agences_voyage_seq")
+    @SequenceGenerator(name = "agences_voyage_seq", sequenceName = "agences_voyage_seq", allocationSize = 50)
     private Long id;
 
     private String nom;
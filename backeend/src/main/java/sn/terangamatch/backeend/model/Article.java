@@ -8,7 +8,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+        @Index(name = "idx_articles_created_id", columnList = "createdAt, id"),
+        @Index(name = "idx_articles_featured_created_id", columnList = "featured, createdAt, id"),
+        @Index(name = "idx_articles_updated_at", columnList = "updatedAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +20,8 @@ import java.time.LocalDateTime;
 public class Article {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "articles_seq")
+    @SequenceGenerator(name = "articles_seq", sequenceName = "articles_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -37,7 +42,9 @@ public class Article {
 
     private boolean featured; // si on veut afficher dans un carrousel ou à la une
 
+    // Clé de la pagination par curseur : jamais null (voir ArticleCreatedAtInitializer)
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
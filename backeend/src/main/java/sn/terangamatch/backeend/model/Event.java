@@ -1,24 +1,47 @@
 package sn.terangamatch.backeend.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import sn.terangamatch.backeend.search.TextNormalizer;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date_id", columnList = "date, id"),
+        @Index(name = "idx_events_type_date_id", columnList = "type, date, id"),
+        @Index(name = "idx_events_status_date_id", columnList = "status, date, id"),
+        @Index(name = "idx_events_category_date_id", columnList = "category, date, id"),
+        @Index(name = "idx_events_location_key_date_id", columnList = "locationKey, date, id"),
+        @Index(name = "idx_events_price_amount", columnList = "priceAmount"),
+        @Index(name = "idx_events_start", columnList = "startDateTime"),
+        @Index(name = "idx_events_end", columnList = "endDateTime"),
+        @Index(name = "idx_events_updated_at", columnList = "updatedAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Event {
 
+    // Un montant, séparateurs de milliers compris : "2000", "2 000", "2.000", "2,000"
+    private static final Pattern PRICE_NUMBER = Pattern.compile("\\d{1,3}(?:[ .,\u00a0\u202f]\\d{3})+(?!\\d)|\\d+");
+
+    // Valeurs de status, calculées à partir de startDateTime / endDateTime quand elles sont renseignées
+    public static final String STATUS_UPCOMING = "À venir";
+    public static final String STATUS_ONGOING = "En cours";
+    public static final String STATUS_FINISHED = "Terminé";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -28,28 +51,49 @@ public class Event {
 
     private String location;
 
+    // location pliée (casse, accents, espaces) : le filtre de recherche par lieu est une égalité indexée
+    @Column(name = "location_key")
+    private String locationKey;
+
     private String type; // "sport" ou "other"
     private String category; // (ex: "Culture", "Musique", "Football")
 
     private String status; // "À venir", "En cours", "Terminé"
 
     private String price; // ex: "2000 FCFA"
+
+    // Montant en FCFA déduit de price (0 = gratuit, null = illisible), pour filtrer par prix
+    @Column(name = "price_amount")
+    private Long priceAmount;
     private boolean isLive;
+
+    // Compteur maintenu uniquement en SQL par l'inscription (jamais réécrit par un save)
+    @Column(nullable = false, updatable = false)
     private int registered;
 
+    // Nombre de places, null = illimité
+    private Integer capacity;
+
     private LocalDateTime date; // date principale (utilisée par le front)
     private LocalDateTime startDateTime;
     private LocalDateTime endDateTime;
 
-    @ManyToOne
+    // Jamais parcourus par les réponses JSON : voir EventDTO / EventDetailDTO
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User organizer;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToMany
     @JoinTable(
             name = "event_participants",
             joinColumns = @JoinColumn(name = "event_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"})
     )
     private List<User> participants;
 
@@ -65,4 +109,51 @@ public class Event {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // null si l'événement n'a pas d'horaires : le status reste alors saisi à la main
+    public String statusAt(LocalDateTime now) {
+        if (startDateTime == null) {
+            return null;
+        }
+        if (now.isBefore(startDateTime)) {
+            return STATUS_UPCOMING;
+        }
+        return endDateTime == null || now.isBefore(endDateTime) ? STATUS_ONGOING : STATUS_FINISHED;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        priceAmount = parsePriceAmount(price);
+        locationKey = locationKey(location);
+    }
+
+    // "  Thiès " et "THIES" donnent "thies" ; null si le lieu est vide
+    public static String locationKey(String location) {
+        String key = TextNormalizer.fold(location).trim().replaceAll("\\s+", " ");
+        return key.isEmpty() ? null : key;
+    }
+
+    // "2000 FCFA", "2 000 FCFA", "2.000 F" -> 2000 ; "2000-5000 FCFA", "Adulte 2000 / Enfant 1000" -> le plus
+    // bas (prix "à partir de") ; "Gratuit", "Free" -> 0 ; vide ou sans montant -> null (prix inconnu, jamais "gratuit")
+    public static Long parsePriceAmount(String price) {
+        if (price == null || price.isBlank()) {
+            return null;
+        }
+        String lower = price.toLowerCase();
+        if (lower.contains("gratuit") || lower.contains("free")) {
+            return 0L;
+        }
+        Long lowest = null;
+        Matcher matcher = PRICE_NUMBER.matcher(price);
+        while (matcher.find()) {
+            String digits = matcher.group().replaceAll("[^0-9]", "");
+            if (digits.length() > 15) {
+                return null;
+            }
+            long amount = Long.parseLong(digits);
+            lowest = lowest == null ? amount : Math.min(lowest, amount);
+        }
+        return lowest;
+    }
 }
@@ -7,7 +7,9 @@ import lombok.*;
 import java.util.List;
 
 @Entity
-@Table(name = "guides")
+@Table(name = "guides", indexes = {
+        @Index(name = "idx_guides_rating_avg", columnList = "ratingAvg")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +28,8 @@ public class Guide {
     private List<String> specialties;
 
     private Double hourlyRate;
+    // Copie de rating_aggregates, maintenue par RatingService : jamais écrite par une sauvegarde du profil
+    @Column(insertable = false, updatable = false)
     private Double ratingAvg;
     private boolean verified;
 
@@ -15,7 +15,8 @@ import java.util.List;
 public class Place {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "places_seq")
+    @SequenceGenerator(name = "places_seq", sequenceName = "places_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -0,0 +1,44 @@
+package sn.terangamatch.backeend.model;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Agrégat des avis d'une cible (guide, lieu, événement), tenu à jour par RatingService
+@Entity
+@Table(name = "rating_aggregates", indexes = {
+        @Index(name = "idx_rating_aggregates_rank", columnList = "target_type, rating_avg, review_count")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregate {
+
+    @EmbeddedId
+    private RatingTarget target;
+
+    @Column(nullable = false)
+    private int reviewCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    // Histogramme : nombre d'avis à 1, 2, 3, 4 et 5 étoiles
+    @Column(nullable = false)
+    private int star1;
+    @Column(nullable = false)
+    private int star2;
+    @Column(nullable = false)
+    private int star3;
+    @Column(nullable = false)
+    private int star4;
+    @Column(nullable = false)
+    private int star5;
+
+    private Double ratingAvg; // null tant qu'il n'y a aucun avis
+
+    private LocalDateTime updatedAt;
+}
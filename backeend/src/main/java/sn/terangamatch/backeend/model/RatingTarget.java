@@ -0,0 +1,21 @@
+package sn.terangamatch.backeend.model;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingTarget implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", length = 16, nullable = false)
+    private RatingTargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+}
@@ -0,0 +1,8 @@
+package sn.terangamatch.backeend.model;
+
+
+public enum RatingTargetType {
+    GUIDE,
+    PLACE,
+    EVENT
+}
@@ -7,7 +7,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_guide_id", columnList = "guide_id, id"),
+        @Index(name = "idx_reviews_place_id", columnList = "place_id, id"),
+        @Index(name = "idx_reviews_event_id", columnList = "event_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +19,8 @@ import java.time.LocalDateTime;
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_seq")
+    @SequenceGenerator(name = "reviews_seq", sequenceName = "reviews_seq", allocationSize = 50)
     private Long id;
 
     private Integer rating;
@@ -0,0 +1,9 @@
+package sn.terangamatch.backeend.model;
+
+
+public enum TicketStatus {
+    HELD,       // places bloquées jusqu'à holdExpiresAt
+    CONFIRMED,
+    CANCELLED,
+    EXPIRED
+}
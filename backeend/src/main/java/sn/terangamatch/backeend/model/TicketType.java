@@ -0,0 +1,50 @@
+package sn.terangamatch.backeend.model;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Catégorie de billets d'un événement (ex : "Tribune", "VIP") et son contingent
+@Entity
+@Table(name = "ticket_types")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketType {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_types_seq")
+    @SequenceGenerator(name = "ticket_types_seq", sequenceName = "ticket_types_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "event_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Event event;
+
+    @Column(nullable = false)
+    private String name;
+
+    private Long price; // FCFA
+
+    @Column(nullable = false)
+    private int quantity;
+
+    // Places bloquées ou vendues, recopiées en différé depuis TicketInventory (indicatif)
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int reserved;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package sn.terangamatch.backeend.model;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Utilisateur supprimé dont les JWT encore valides doivent être refusés (mode "claims only")
+@Entity
+@Table(name = "user_revocations", indexes = {
+        @Index(name = "idx_user_revocations_revoked_at", columnList = "revokedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRevocation {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -1,15 +1,85 @@
 package sn.terangamatch.backeend.repository;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import sn.terangamatch.backeend.dto.ArticleSummaryDTO;
 import sn.terangamatch.backeend.model.Article;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
     List<Article> findByCategoryIgnoreCase(String category);
-    List<Article> findByTitleContainingIgnoreCaseOrExcerptContainingIgnoreCase(String title, String excerpt);
+    boolean existsByImage(String image);
+
+    String SUMMARY = "select new sn.terangamatch.backeend.dto.ArticleSummaryDTO("
+            + "a.id, a.title, a.excerpt, a.image, a.author, a.category, a.readTime, a.featured, a.createdAt) "
+            + "from Article a ";
+    String CATEGORY_FILTER = "(:category is null or lower(a.category) = lower(:category)) ";
+
+    @Query("select a.id from Article a where a.image = :image")
+    List<Long> findIdsByImage(@Param("image") String image);
+
+    // Nouvelle version (donc nouvel ETag) quand la représentation change sans écriture de l'article
+    @Modifying
+    @Transactional
+    @Query("update Article a set a.updatedAt = :updatedAt where a.image = :image")
+    int touchByImage(@Param("image") String image, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Suffit pour répondre 304 sans charger l'article
+    @Query("select a.updatedAt from Article a where a.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query(SUMMARY + "where a.id in :ids")
+    List<ArticleSummaryDTO> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Pagination par clé (createdAt, id) : le Pageable ne sert qu'à limiter la taille de page
+
+    @Query(SUMMARY + "where " + CATEGORY_FILTER
+            + "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryDTO> findRecentSummaries(@Param("category") String category, Pageable pageable);
+
+    @Query(SUMMARY + "where " + CATEGORY_FILTER
+            + "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) "
+            + "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryDTO> findRecentSummariesAfter(@Param("category") String category,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    @Query(SUMMARY + "where " + CATEGORY_FILTER
+            + "order by a.featured desc, a.createdAt desc, a.id desc")
+    List<ArticleSummaryDTO> findFeaturedFirstSummaries(@Param("category") String category, Pageable pageable);
+
+    @Query(SUMMARY + "where " + CATEGORY_FILTER
+            + "and ((a.featured = false and :featured = true) "
+            + "or (a.featured = :featured and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)))) "
+            + "order by a.featured desc, a.createdAt desc, a.id desc")
+    List<ArticleSummaryDTO> findFeaturedFirstSummariesAfter(@Param("category") String category,
+                                                            @Param("featured") boolean featured,
+                                                            @Param("createdAt") LocalDateTime createdAt,
+                                                            @Param("id") Long id,
+                                                            Pageable pageable);
+
+    @Query("select a.id as id, a.title as title, a.category as category, a.featured as featured, "
+            + "a.createdAt as createdAt from Article a")
+    List<ArticleSuggestionRow> findSuggestionRows();
+
+    interface ArticleSuggestionRow {
+        Long getId();
+        String getTitle();
+        String getCategory();
+        boolean isFeatured();
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -1,17 +1,158 @@
 package sn.terangamatch.backeend.repository;
 
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import sn.terangamatch.backeend.dto.UserSummaryDTO;
 import sn.terangamatch.backeend.model.Event;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
     List<Event> findByType(String type);
+
+    // Vue détail : l'événement et son organisateur (avec profil) en une requête
+    @EntityGraph(attributePaths = {"organizer", "organizer.profile"})
+    Optional<Event> findDetailedById(Long id);
+
+    // Participants par id croissant, sans charger la collection
+    @Query("select new sn.terangamatch.backeend.dto.UserSummaryDTO(u.id, p.displayName, p.photoUrl) "
+            + "from Event e join e.participants u left join u.profile p "
+            + "where e.id = :eventId and u.id > :afterId order by u.id")
+    List<UserSummaryDTO> findParticipants(@Param("eventId") Long eventId, @Param("afterId") Long afterId, Pageable pageable);
     List<Event> findByStatus(String status);
     List<Event> findByLocation(String location);
+
+    // Horaires des événements qui ont encore une transition de status à venir
+    @Query("select e.id as id, e.startDateTime as startDateTime, e.endDateTime as endDateTime from Event e "
+            + "where e.startDateTime > :now or e.endDateTime > :now")
+    List<EventSchedule> findPendingSchedules(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.status = :status, e.updatedAt = :now "
+            + "where e.id in :ids and (e.status is null or e.status <> :status)")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    // Rattrapage au démarrage : trois updates ensemblistes au lieu de charger chaque événement
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.status = '" + Event.STATUS_FINISHED + "', e.updatedAt = :now "
+            + "where e.endDateTime <= :now and e.startDateTime is not null "
+            + "and (e.status is null or e.status <> '" + Event.STATUS_FINISHED + "')")
+    int markFinished(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.status = '" + Event.STATUS_ONGOING + "', e.updatedAt = :now "
+            + "where e.startDateTime <= :now and (e.endDateTime is null or e.endDateTime > :now) "
+            + "and (e.status is null or e.status <> '" + Event.STATUS_ONGOING + "')")
+    int markOngoing(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.status = '" + Event.STATUS_UPCOMING + "', e.updatedAt = :now "
+            + "where e.startDateTime > :now "
+            + "and (e.status is null or e.status <> '" + Event.STATUS_UPCOMING + "')")
+    int markUpcoming(@Param("now") LocalDateTime now);
+
+    @Query("select distinct e.price from Event e where e.price is not null")
+    List<String> findDistinctPrices();
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.priceAmount = :amount where e.price = :price "
+            + "and (e.priceAmount is null or e.priceAmount <> :amount)")
+    int updatePriceAmount(@Param("price") String price, @Param("amount") Long amount);
+
+    // Libellé sans montant reconnaissable, ou pas de libellé : prix inconnu
+    // Lieux dont la clé n'a pas encore été calculée (lignes antérieures à la colonne, écritures SQL)
+    @Query("select distinct e.location from Event e where e.location is not null and e.locationKey is null")
+    List<String> findLocationsWithoutKey();
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.locationKey = :key where e.location = :location and e.locationKey is null")
+    int updateLocationKey(@Param("location") String location, @Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query("update Event e set e.priceAmount = null where e.priceAmount is not null "
+            + "and (e.price is null or e.price in :prices)")
+    int clearPriceAmount(@Param("prices") Collection<String> prices);
+
+    // Suffit pour répondre 304 sans charger l'événement
+    @Query("select e.updatedAt from Event e where e.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Inscription : une ligne dans la table de jointure, sans charger la liste des participants
+    @Modifying
+    @Query(value = "insert into event_participants (event_id, user_id) values (:eventId, :userId) "
+            + "on conflict do nothing", nativeQuery = true)
+    int insertParticipant(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from event_participants where event_id = :eventId and user_id = :userId",
+            nativeQuery = true)
+    int deleteParticipant(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    // La condition sur la capacité est évaluée sous le verrou de ligne posé par l'update lui-même
+    @Modifying
+    // updated_at vient de l'horloge de la JVM, comme @UpdateTimestamp, pas de celle de la base
+    @Query(value = "update events set registered = registered + 1, updated_at = :now "
+            + "where id = :eventId and (capacity is null or registered < capacity)", nativeQuery = true)
+    int incrementRegistered(@Param("eventId") Long eventId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "update events set registered = registered - 1, updated_at = :now "
+            + "where id = :eventId and registered > 0", nativeQuery = true)
+    int decrementRegistered(@Param("eventId") Long eventId, @Param("now") LocalDateTime now);
+
+    // Nouvelle capacité seulement si elle couvre les inscrits, vérifié sous le verrou de ligne
+    @Modifying
+    @Transactional
+    @Query(value = "update events set capacity = :capacity where id = :eventId and registered <= :capacity",
+            nativeQuery = true)
+    int updateCapacity(@Param("eventId") Long eventId, @Param("capacity") int capacity);
+
+    @Query(value = "select count(*) > 0 from event_participants where event_id = :eventId and user_id = :userId",
+            nativeQuery = true)
+    boolean isParticipant(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    @Query("select e.registered as registered, e.capacity as capacity from Event e where e.id = :id")
+    Optional<SeatCount> findSeatCountById(@Param("id") Long id);
+
+    @Query("select e.id as id, e.title as title, e.location as location, e.registered as registered from Event e")
+    List<EventSuggestionRow> findSuggestionRows();
+
+    interface EventSuggestionRow {
+        Long getId();
+        String getTitle();
+        String getLocation();
+        int getRegistered();
+    }
+
+    interface EventSchedule {
+        Long getId();
+        LocalDateTime getStartDateTime();
+        LocalDateTime getEndDateTime();
+    }
+
+    interface SeatCount {
+        int getRegistered();
+        Integer getCapacity();
+    }
 }
 
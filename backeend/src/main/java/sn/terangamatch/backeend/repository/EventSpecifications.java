@@ -0,0 +1,67 @@
+package sn.terangamatch.backeend.repository;
+
+
+import org.springframework.data.jpa.domain.Specification;
+import sn.terangamatch.backeend.dto.EventSearchCriteria;
+import sn.terangamatch.backeend.model.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtres composables de la recherche d'événements. Seuls les événements datés sont
+ * concernés : l'ordre (date, id) sert à la fois au tri et à la pagination par curseur.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> matching(EventSearchCriteria criteria) {
+        Specification<Event> spec = (root, query, cb) -> cb.isNotNull(root.get("date"));
+        spec = and(spec, equalTo("type", criteria.getType()));
+        spec = and(spec, equalTo("category", criteria.getCategory()));
+        spec = and(spec, equalTo("status", criteria.getStatus()));
+        // Lieu exact (à la casse et aux accents près), servi par idx_events_location_key_date_id
+        String locationKey = Event.locationKey(criteria.getLocation());
+        if (locationKey != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("locationKey"), locationKey));
+        }
+        if (criteria.getFrom() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("date"), criteria.getTo()));
+        }
+        if (criteria.getFree() != null) {
+            spec = spec.and(criteria.getFree()
+                    ? (root, query, cb) -> cb.equal(root.get("priceAmount"), 0L)
+                    : (root, query, cb) -> cb.greaterThan(root.get("priceAmount"), 0L));
+        }
+        if (criteria.getMinPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("priceAmount"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("priceAmount"), criteria.getMaxPrice()));
+        }
+        return spec;
+    }
+
+    // (date, id) > (afterDate, afterId)
+    public static Specification<Event> after(LocalDateTime afterDate, Long afterId) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("date"), afterDate),
+                cb.and(cb.equal(root.get("date"), afterDate), cb.greaterThan(root.get("id"), afterId)));
+    }
+
+    private static Specification<Event> equalTo(String attribute, String value) {
+        return hasText(value) ? (root, query, cb) -> cb.equal(root.get(attribute), value.trim()) : null;
+    }
+
+    private static Specification<Event> and(Specification<Event> spec, Specification<Event> other) {
+        return other != null ? spec.and(other) : spec;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -2,6 +2,7 @@ package sn.terangamatch.backeend.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import sn.terangamatch.backeend.model.AgenceVoyage;
@@ -23,4 +24,25 @@ public interface GuideRepository extends JpaRepository<Guide, Long> {
 
     // Trouver guide par user id (héritage via user)
     List<Guide> findByUser_Id(Long userId);
+
+    // Chargement de l'index de recherche sans instancier les guides ni leurs utilisateurs
+    @Query("select g.id as id, g.hourlyRate as hourlyRate, g.ratingAvg as ratingAvg, "
+            + "g.verified as verified, a.id as agenceVoyageId from Guide g left join g.agenceVoyage a")
+    List<GuideRow> findAllRows();
+
+    @Query("select g.id as guideId, s as specialty from Guide g join g.specialties s")
+    List<GuideSpecialty> findAllSpecialties();
+
+    interface GuideRow {
+        Long getId();
+        Double getHourlyRate();
+        Double getRatingAvg();
+        Boolean getVerified();
+        Long getAgenceVoyageId();
+    }
+
+    interface GuideSpecialty {
+        Long getGuideId();
+        String getSpecialty();
+    }
 }
@@ -2,6 +2,7 @@ package sn.terangamatch.backeend.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import sn.terangamatch.backeend.model.Place;
@@ -17,4 +18,26 @@ public interface PlaceRepository extends JpaRepository<Place, Long> {
     List<Place> findByNameContainingIgnoreCase(String q);
 
     List<Place> findByAddressContainingIgnoreCase(String q);
+
+    // Chargement de l'index géographique sans les avis
+    @Query("select p.id as id, p.latitude as latitude, p.longitude as longitude, p.type as type from Place p "
+            + "where p.latitude is not null and p.longitude is not null")
+    List<PlaceLocation> findAllLocations();
+
+    @Query("select p.id as id, p.name as name, p.address as address, size(p.reviews) as reviewCount from Place p")
+    List<PlaceSuggestionRow> findSuggestionRows();
+
+    interface PlaceSuggestionRow {
+        Long getId();
+        String getName();
+        String getAddress();
+        long getReviewCount();
+    }
+
+    interface PlaceLocation {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+        PlaceType getType();
+    }
 }
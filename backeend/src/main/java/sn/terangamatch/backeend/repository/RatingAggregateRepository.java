@@ -0,0 +1,27 @@
+package sn.terangamatch.backeend.repository;
+
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import sn.terangamatch.backeend.model.RatingAggregate;
+import sn.terangamatch.backeend.model.RatingTarget;
+import sn.terangamatch.backeend.model.RatingTargetType;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, RatingTarget> {
+
+    // Classement servi par l'index (target_type, rating_avg, review_count), sans lire les avis
+    @Query("select a from RatingAggregate a where a.target.targetType = :type and a.reviewCount >= :minCount "
+            + "order by a.ratingAvg desc, a.reviewCount desc")
+    List<RatingAggregate> findTopRated(@Param("type") RatingTargetType type, @Param("minCount") int minCount, Pageable pageable);
+
+    @Query("select a from RatingAggregate a where a.target.targetType = :type and a.target.targetId in :ids")
+    List<RatingAggregate> findByTargets(@Param("type") RatingTargetType type, @Param("ids") Collection<Long> ids);
+}
@@ -1,6 +1,11 @@
 package sn.terangamatch.backeend.repository;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import sn.terangamatch.backeend.model.Event;
@@ -10,6 +15,7 @@ import sn.terangamatch.backeend.model.Review;
 import sn.terangamatch.backeend.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -21,4 +27,16 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByPlace(Place place);
 
     List<Review> findByEvent(Event event);
+
+    // Avis verrouillé jusqu'au commit : deux modifications simultanées ne retirent pas deux fois l'ancienne note
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Review r where r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") Long id);
+
+    // Pagination par id décroissant (les plus récents d'abord)
+    List<Review> findByGuide_IdAndIdLessThanOrderByIdDesc(Long guideId, Long beforeId, Pageable pageable);
+
+    List<Review> findByPlace_IdAndIdLessThanOrderByIdDesc(Long placeId, Long beforeId, Pageable pageable);
+
+    List<Review> findByEvent_IdAndIdLessThanOrderByIdDesc(Long eventId, Long beforeId, Pageable pageable);
 }
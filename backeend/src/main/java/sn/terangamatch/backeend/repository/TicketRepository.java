@@ -0,0 +1,56 @@
+package sn.terangamatch.backeend.repository;
+
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import sn.terangamatch.backeend.model.Ticket;
+import sn.terangamatch.backeend.model.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TicketRepository extends JpaRepository<Ticket, Long> {
+
+    // Billets d'un utilisateur avec type et événement, en une requête
+    @Query("select t from Ticket t join fetch t.ticketType tt join fetch tt.event "
+            + "where t.user.id = :userId order by t.id desc")
+    List<Ticket> findByUserIdWithEvent(@Param("userId") Long userId);
+
+    @Query("select t from Ticket t join fetch t.ticketType tt join fetch tt.event where t.id = :id")
+    Optional<Ticket> findByIdWithEvent(@Param("id") Long id);
+
+    @Query("select t from Ticket t join fetch t.ticketType tt join fetch tt.event where t.code = :code")
+    Optional<Ticket> findByCodeWithEvent(@Param("code") String code);
+
+    // Ne réussit que si la réservation est toujours bloquée et non expirée
+    @Modifying
+    @Transactional
+    @Query("update Ticket t set t.status = sn.terangamatch.backeend.model.TicketStatus.CONFIRMED, t.confirmedAt = :now "
+            + "where t.id = :id and t.user.id = :userId "
+            + "and t.status = sn.terangamatch.backeend.model.TicketStatus.HELD and t.holdExpiresAt > :now")
+    int confirm(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Transition conditionnelle : un seul appelant libère les places, même en concurrence avec l'expiration
+    @Modifying
+    @Transactional
+    @Query("update Ticket t set t.status = sn.terangamatch.backeend.model.TicketStatus.CANCELLED "
+            + "where t.id = :id and t.status = :expected")
+    int cancel(@Param("id") Long id, @Param("expected") TicketStatus expected);
+
+    // Billets non vendus (bloqués, annulés, expirés) des types d'un événement
+    @Modifying
+    @Transactional
+    @Query("delete from Ticket t where t.status <> sn.terangamatch.backeend.model.TicketStatus.CONFIRMED "
+            + "and t.ticketType.id in (select tt.id from TicketType tt where tt.event.id = :eventId)")
+    int deleteUnsoldByEventId(@Param("eventId") Long eventId);
+
+    @Query("select count(t) > 0 from Ticket t where t.ticketType.event.id = :eventId")
+    boolean existsByEventId(@Param("eventId") Long eventId);
+}
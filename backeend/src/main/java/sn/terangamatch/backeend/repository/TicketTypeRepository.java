@@ -0,0 +1,39 @@
+package sn.terangamatch.backeend.repository;
+
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import sn.terangamatch.backeend.model.TicketType;
+
+import java.util.List;
+
+@Repository
+public interface TicketTypeRepository extends JpaRepository<TicketType, Long> {
+
+    List<TicketType> findByEventIdOrderById(Long eventId);
+
+    // Contingent et places engagées de chaque type. Un billet bloqué compte même expiré :
+    // c'est TicketService.expireHolds qui rend ses places, une seule fois, en le passant à EXPIRED
+    @Query("select tt.id as id, tt.quantity as quantity, "
+            + "(select coalesce(sum(t.quantity), 0) from Ticket t where t.ticketType = tt "
+            + "and t.status in (sn.terangamatch.backeend.model.TicketStatus.CONFIRMED, "
+            + "sn.terangamatch.backeend.model.TicketStatus.HELD)) as committed "
+            + "from TicketType tt")
+    List<InventoryRow> findInventory();
+
+    @Modifying
+    @Transactional
+    @Query("delete from TicketType tt where tt.event.id = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    interface InventoryRow {
+        Long getId();
+        int getQuantity();
+        long getCommitted();
+    }
+}
@@ -2,10 +2,17 @@ package sn.terangamatch.backeend.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import sn.terangamatch.backeend.dto.UserSummaryDTO;
 import sn.terangamatch.backeend.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,5 +21,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.passwordHash = :passwordHash where u.email = :email")
+    int updatePasswordHash(@Param("email") String email, @Param("passwordHash") String passwordHash);
+
+    @Query("select new sn.terangamatch.backeend.dto.UserSummaryDTO(u.id, p.displayName, p.photoUrl) "
+            + "from User u left join u.profile p where u.id in :ids")
+    List<UserSummaryDTO> findSummaries(@Param("ids") Collection<Long> ids);
+
+    // Uniquement les utilisateurs dont les anciens tokens ont été révoqués
+    List<UserTokenVersion> findByTokenVersionGreaterThan(int tokenVersion);
+
+    interface UserTokenVersion {
+        Long getId();
+        int getTokenVersion();
+    }
 }
 
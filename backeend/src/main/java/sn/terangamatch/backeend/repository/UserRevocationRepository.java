@@ -0,0 +1,26 @@
+package sn.terangamatch.backeend.repository;
+
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import sn.terangamatch.backeend.model.UserRevocation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserRevocationRepository extends JpaRepository<UserRevocation, Long> {
+
+    List<UserRevocation> findByRevokedAtAfter(LocalDateTime since);
+
+    // Au-delà de la durée de vie d'un JWT, la révocation ne sert plus
+    @Modifying
+    @Transactional
+    @Query("delete from UserRevocation r where r.revokedAt < :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,190 @@
+package sn.terangamatch.backeend.search;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.model.Article;
+import sn.terangamatch.backeend.repository.ArticleRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire sur title, excerpt, content et category, accents pliés.
+ * Tous les mots de la requête doivent correspondre ; le dernier est traité comme préfixe,
+ * développé en au plus MAX_PREFIX_EXPANSIONS termes : le terme exact puis les plus fréquents.
+ * Classement : somme des poids de champ × log(1 + tf) × idf.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float EXCERPT_WEIGHT = 1.5f;
+    private static final float CONTENT_WEIGHT = 1.0f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ArticleRepository articleRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // terme -> (id article -> poids du terme dans l'article)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // id article -> termes indexés, pour la mise à jour et la suppression
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Article> articles = articleRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            articles.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche des articles construit ({} articles)", articles.size());
+    }
+
+    public void index(Article article) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(article.getId());
+            addDocument(article);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = TextNormalizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocuments = Math.max(1, documents.size());
+            Map<Long, Float> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Long, Float> termScores = scoreTerm(terms.get(i), prefix, totalDocuments);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return new SearchHits(List.of(), 0);
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+            // Score décroissant, puis article le plus récent (id le plus grand) en premier
+            ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.<Long, Float>comparingByKey(Comparator.reverseOrder())));
+
+            List<Long> ids = ranked.stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return new SearchHits(ids, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Float> scoreTerm(String term, boolean prefix, int totalDocuments) {
+        Map<Long, Float> scores = new HashMap<>();
+        List<Map<Long, Float>> matches = new ArrayList<>();
+        if (postings.containsKey(term)) {
+            matches.add(postings.get(term));
+        }
+        if (prefix) {
+            List<Map<Long, Float>> expansions = new ArrayList<>(
+                    postings.subMap(term, false, term + Character.MAX_VALUE, false).values());
+            // Au-delà de la limite, les termes les plus rares sont ceux qui font perdre le moins de résultats
+            if (matches.size() + expansions.size() > MAX_PREFIX_EXPANSIONS) {
+                expansions.sort(Comparator.comparingInt((Map<Long, Float> docs) -> docs.size()).reversed());
+                expansions = expansions.subList(0, MAX_PREFIX_EXPANSIONS - matches.size());
+            }
+            matches.addAll(expansions);
+        }
+
+        for (Map<Long, Float> docs : matches) {
+            float idf = (float) Math.log(1.0 + (double) totalDocuments / docs.size());
+            docs.forEach((id, weight) -> scores.merge(id, weight * idf, Math::max));
+        }
+        return scores;
+    }
+
+    private static Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> result = new HashMap<>();
+        left.forEach((id, score) -> {
+            Float other = right.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private void addDocument(Article article) {
+        Map<String, Float> frequencies = new HashMap<>();
+        accumulate(frequencies, article.getTitle(), TITLE_WEIGHT);
+        accumulate(frequencies, article.getCategory(), CATEGORY_WEIGHT);
+        accumulate(frequencies, article.getExcerpt(), EXCERPT_WEIGHT);
+        accumulate(frequencies, article.getContent(), CONTENT_WEIGHT);
+
+        Map<String, Float> weights = new HashMap<>();
+        frequencies.forEach((term, frequency) -> {
+            float weight = (float) Math.log1p(frequency);
+            weights.put(term, weight);
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(article.getId(), weight);
+        });
+        documents.put(article.getId(), weights);
+    }
+
+    private void removeDocument(Long articleId) {
+        Map<String, Float> previous = documents.remove(articleId);
+        if (previous == null) {
+            return;
+        }
+        previous.keySet().forEach(term -> {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(articleId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private static void accumulate(Map<String, Float> frequencies, String text, float fieldWeight) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            frequencies.merge(token, fieldWeight, Float::sum);
+        }
+    }
+
+    public record SearchHits(List<Long> ids, int total) {
+    }
+}
@@ -0,0 +1,296 @@
+package sn.terangamatch.backeend.search;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.dto.GuideSearchCriteria;
+import sn.terangamatch.backeend.repository.GuideRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index bitmap des guides : chaque guide occupe un emplacement (bit) et chaque spécialité,
+ * agence et le statut vérifié ont leur BitSet. Une recherche multi-critères se réduit à des
+ * AND / OR de BitSet, puis au filtre de tarif et au tri par note sur les seuls guides retenus.
+ */
+@Slf4j
+@Component
+public class GuideSearchIndex {
+
+    public record GuideEntry(Long id, List<String> specialties, Double hourlyRate, Double ratingAvg,
+                             boolean verified, Long agenceVoyageId) {
+    }
+
+    public record GuideHits(List<GuideEntry> hits, int total) {
+    }
+
+    // Meilleure note d'abord, guides sans note en dernier, puis id : ordre total, donc pages stables
+    public static final Comparator<GuideEntry> RANKING = Comparator
+            .comparing(GuideEntry::ratingAvg, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(GuideEntry::id);
+
+    private final GuideRepository guideRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private GuideEntry[] entries = new GuideEntry[64];
+    private final BitSet live = new BitSet();
+    private final BitSet verified = new BitSet();
+    // spécialité pliée (TextNormalizer.fold) -> guides
+    private final Map<String, BitSet> bySpecialty = new HashMap<>();
+    // spécialité pliée -> libellé tel que saisi la première fois
+    private final Map<String, String> specialtyLabels = new HashMap<>();
+    private final Map<Long, BitSet> byAgency = new HashMap<>();
+    // Une reconstruction à la fois ; les écritures reçues pendant son chargement sont rejouées après l'échange
+    private final Object rebuildLock = new Object();
+    private List<Runnable> pendingWrites;
+
+    public GuideSearchIndex(GuideRepository guideRepository) {
+        this.guideRepository = guideRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            List<GuideEntry> rows;
+            recordWrites(new ArrayList<>());
+            try {
+                Map<Long, List<String>> specialties = new HashMap<>();
+                guideRepository.findAllSpecialties().forEach(row ->
+                        specialties.computeIfAbsent(row.getGuideId(), id -> new ArrayList<>()).add(row.getSpecialty()));
+                rows = guideRepository.findAllRows().stream()
+                        .map(row -> new GuideEntry(row.getId(), specialties.getOrDefault(row.getId(), List.of()),
+                                row.getHourlyRate(), row.getRatingAvg(), Boolean.TRUE.equals(row.getVerified()),
+                                row.getAgenceVoyageId()))
+                        .toList();
+            } catch (RuntimeException e) {
+                recordWrites(null);
+                throw e;
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                slots.clear();
+                entries = new GuideEntry[Math.max(64, rows.size())];
+                live.clear();
+                verified.clear();
+                bySpecialty.clear();
+                specialtyLabels.clear();
+                byAgency.clear();
+                rows.forEach(this::add);
+                // Écritures arrivées pendant le chargement (profil, note) : les lignes lues peuvent les précéder
+                replayed = pendingWrites.size();
+                pendingWrites.forEach(Runnable::run);
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Index de recherche des guides construit ({} guides, {} spécialités, {} écritures rejouées)",
+                    rows.size(), bySpecialty.size(), replayed);
+        }
+    }
+
+    // La note appartient à updateRating : celle déjà indexée l'emporte sur celle de l'entrée
+    public void index(GuideEntry entry) {
+        write(() -> {
+            Integer slot = slots.get(entry.id());
+            GuideEntry indexed = slot == null ? entry
+                    : new GuideEntry(entry.id(), entry.specialties(), entry.hourlyRate(), entries[slot].ratingAvg(),
+                            entry.verified(), entry.agenceVoyageId());
+            removeSlot(entry.id());
+            add(indexed);
+        });
+    }
+
+    public void remove(Long guideId) {
+        write(() -> removeSlot(guideId));
+    }
+
+    // La note ne touche aucun BitSet : seul l'emplacement est remplacé
+    public void updateRating(Long guideId, Double ratingAvg) {
+        write(() -> {
+            Integer slot = slots.get(guideId);
+            if (slot != null) {
+                GuideEntry entry = entries[slot];
+                entries[slot] = new GuideEntry(entry.id(), entry.specialties(), entry.hourlyRate(), ratingAvg,
+                        entry.verified(), entry.agenceVoyageId());
+            }
+        });
+    }
+
+    public Optional<GuideEntry> get(Long guideId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(guideId);
+            return slot == null ? Optional.empty() : Optional.of(entries[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Guides classés par {@link #RANKING}, strictement après {@code after} (null : depuis le début).
+     */
+    public GuideHits search(GuideSearchCriteria criteria, GuideEntry after, int limit) {
+        List<GuideEntry> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria);
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                GuideEntry entry = entries[slot];
+                if (inRange(entry.hourlyRate(), criteria.getMinRate(), criteria.getMaxRate())) {
+                    hits.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(RANKING);
+        int from = 0;
+        if (after != null) {
+            int position = Collections.binarySearch(hits, after, RANKING);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = Math.min(hits.size(), from + limit);
+        return new GuideHits(List.copyOf(hits.subList(Math.min(from, to), to)), hits.size());
+    }
+
+    // Spécialité -> nombre de guides, pour les filtres
+    public Map<String, Integer> getSpecialtyCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            bySpecialty.forEach((key, guides) -> counts.put(specialtyLabels.get(key), guides.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    private BitSet match(GuideSearchCriteria criteria) {
+        BitSet matches = (BitSet) live.clone();
+        List<String> wanted = criteria.getSpecialties() == null ? List.of() : criteria.getSpecialties().stream()
+                .map(TextNormalizer::fold)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toList();
+        if (!wanted.isEmpty()) {
+            if (criteria.isMatchAll()) {
+                wanted.forEach(specialty -> matches.and(bySpecialty.getOrDefault(specialty, new BitSet())));
+            } else {
+                BitSet any = new BitSet();
+                wanted.forEach(specialty -> any.or(bySpecialty.getOrDefault(specialty, new BitSet())));
+                matches.and(any);
+            }
+        }
+        if (criteria.getVerified() != null) {
+            if (criteria.getVerified()) {
+                matches.and(verified);
+            } else {
+                matches.andNot(verified);
+            }
+        }
+        if (criteria.getAgenceVoyageId() != null) {
+            matches.and(byAgency.getOrDefault(criteria.getAgenceVoyageId(), new BitSet()));
+        }
+        return matches;
+    }
+
+    private static boolean inRange(Double rate, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return rate != null && (min == null || rate >= min) && (max == null || rate <= max);
+    }
+
+    // Applique une écriture, et la note si une reconstruction charge ses lignes en ce moment
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordWrites(List<Runnable> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelé sous verrou d'écriture ; réutilise le premier emplacement libre
+    private void add(GuideEntry entry) {
+        int slot = live.nextClearBit(0);
+        if (slot >= entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[slot] = entry;
+        slots.put(entry.id(), slot);
+        live.set(slot);
+        if (entry.verified()) {
+            verified.set(slot);
+        }
+        for (String specialty : entry.specialties()) {
+            String key = TextNormalizer.fold(specialty).trim();
+            if (!key.isEmpty()) {
+                bySpecialty.computeIfAbsent(key, k -> new BitSet()).set(slot);
+                specialtyLabels.putIfAbsent(key, specialty.trim());
+            }
+        }
+        if (entry.agenceVoyageId() != null) {
+            byAgency.computeIfAbsent(entry.agenceVoyageId(), k -> new BitSet()).set(slot);
+        }
+    }
+
+    private void removeSlot(Long guideId) {
+        Integer slot = slots.remove(guideId);
+        if (slot == null) {
+            return;
+        }
+        GuideEntry entry = entries[slot];
+        entries[slot] = null;
+        live.clear(slot);
+        verified.clear(slot);
+        for (String specialty : entry.specialties()) {
+            String key = TextNormalizer.fold(specialty).trim();
+            BitSet guides = bySpecialty.get(key);
+            if (guides != null) {
+                guides.clear(slot);
+                if (guides.isEmpty()) {
+                    bySpecialty.remove(key);
+                    specialtyLabels.remove(key);
+                }
+            }
+        }
+        if (entry.agenceVoyageId() != null) {
+            BitSet guides = byAgency.get(entry.agenceVoyageId());
+            if (guides != null) {
+                guides.clear(slot);
+                if (guides.isEmpty()) {
+                    byAgency.remove(entry.agenceVoyageId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package sn.terangamatch.backeend.search;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.dto.SuggestionDTO;
+import sn.terangamatch.backeend.model.Article;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.repository.ArticleRepository;
+import sn.terangamatch.backeend.repository.EventRepository;
+import sn.terangamatch.backeend.repository.PlaceRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplétion : trie en mémoire des mots (accents pliés) des noms et adresses de lieux,
+ * des titres d'événements et des titres d'articles. Chaque nœud garde, par type, ses meilleures
+ * suggestions par popularité, recalculées sur le seul chemin des mots touchés par une
+ * écriture : une requête ne fait que descendre le préfixe, quel que soit le volume indexé.
+ * Seule une requête de plusieurs mots dont les meilleures suggestions du nœud ne suffisent
+ * pas parcourt le sous-arbre de son mot le plus long.
+ */
+@Slf4j
+@Component
+public class SuggestionIndex {
+
+    public static final String PLACE = "place";
+    public static final String EVENT = "event";
+    public static final String ARTICLE = "article";
+    private static final Set<String> ALL_KINDS = Set.of(PLACE, EVENT, ARTICLE);
+
+    private static final double FEATURED_BONUS = 50;
+    private static final double RECENCY_DAYS = 30;
+
+    private record Item(String key, String kind, Long id, String label, String detail, double weight, Set<String> terms) {
+    }
+
+    private static final Comparator<Item> BY_POPULARITY = Comparator.comparingDouble(Item::weight).reversed()
+            .thenComparing(Item::label, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        Set<String> keys; // éléments dont un mot se termine ici
+        Map<String, List<Item>> top = Map.of(); // par type
+    }
+
+    private final PlaceRepository placeRepository;
+    private final EventRepository eventRepository;
+    private final ArticleRepository articleRepository;
+    private final int nodeCapacity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Item> items = new HashMap<>();
+    // Une reconstruction à la fois ; les écritures reçues pendant son chargement sont rejouées après l'échange
+    private final Object rebuildLock = new Object();
+    private List<Runnable> pendingWrites;
+
+    public SuggestionIndex(PlaceRepository placeRepository,
+                           EventRepository eventRepository,
+                           ArticleRepository articleRepository,
+                           @Value("${app.search.suggest.node-capacity:32}") int nodeCapacity) {
+        this.placeRepository = placeRepository;
+        this.eventRepository = eventRepository;
+        this.articleRepository = articleRepository;
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    // Construction complète au démarrage, puis périodiquement pour suivre la popularité (avis, inscriptions)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.search.suggest.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.search.suggest.refresh-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            List<Item> loaded = new ArrayList<>();
+            recordWrites(new ArrayList<>());
+            try {
+                placeRepository.findSuggestionRows().forEach(row ->
+                        loaded.add(placeItem(row.getId(), row.getName(), row.getAddress(), row.getReviewCount())));
+                eventRepository.findSuggestionRows().forEach(row ->
+                        loaded.add(eventItem(row.getId(), row.getTitle(), row.getLocation(), row.getRegistered())));
+                articleRepository.findSuggestionRows().forEach(row ->
+                        loaded.add(articleItem(row.getId(), row.getTitle(), row.getCategory(), row.isFeatured(), row.getCreatedAt())));
+            } catch (RuntimeException e) {
+                recordWrites(null);
+                throw e;
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                root.children.clear();
+                root.keys = null;
+                root.top = Map.of();
+                items.clear();
+                loaded.forEach(item -> insert(item, false));
+                refreshAll(root);
+                // Écritures arrivées pendant le chargement : les lignes lues peuvent les précéder
+                replayed = pendingWrites.size();
+                pendingWrites.forEach(Runnable::run);
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Index d'autocomplétion construit ({} entrées, {} écritures rejouées)", loaded.size(), replayed);
+        }
+    }
+
+    // Le nombre d'avis n'est pas connu ici : la popularité actuelle est conservée jusqu'au prochain rafraîchissement
+    public void indexPlace(Place place) {
+        Item item = placeItem(place.getId(), place.getName(), place.getAddress(), 0);
+        write(() -> {
+            Item previous = items.get(item.key());
+            Item indexed = previous == null ? item
+                    : new Item(item.key(), item.kind(), item.id(), item.label(), item.detail(), previous.weight(), item.terms());
+            delete(indexed.key());
+            insert(indexed, true);
+        });
+    }
+
+    public void indexEvent(Event event) {
+        put(eventItem(event.getId(), event.getTitle(), event.getLocation(), event.getRegistered()));
+    }
+
+    public void indexArticle(Article article) {
+        put(articleItem(article.getId(), article.getTitle(), article.getCategory(), article.isFeatured(), article.getCreatedAt()));
+    }
+
+    public void remove(String kind, Long id) {
+        write(() -> delete(kind + ":" + id));
+    }
+
+    // Chaque mot doit préfixer un mot de l'élément
+    public List<SuggestionDTO> suggest(String query, Set<String> kinds, int limit) {
+        List<String> words = queryWords(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Le mot le plus long est le plus sélectif : on descend son préfixe, les autres filtrent
+        String anchor = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        List<String> others = new ArrayList<>(words);
+        others.remove(anchor);
+        Set<String> wanted = kinds == null || kinds.isEmpty() ? ALL_KINDS : kinds;
+
+        List<Item> matches;
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < anchor.length() && node != null; i++) {
+                node = node.children.get(anchor.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            matches = select(best(node, wanted), others, limit);
+            if (matches.size() < limit && !others.isEmpty() && truncated(node, wanted)) {
+                // Les éléments retenus par les autres mots peuvent être au-delà des meilleurs du nœud
+                matches = select(subtree(node, wanted), others, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream()
+                .map(item -> SuggestionDTO.builder()
+                        .kind(item.kind())
+                        .id(item.id())
+                        .label(item.label())
+                        .detail(item.detail())
+                        .build())
+                .toList();
+    }
+
+    private static List<Item> best(Node node, Set<String> kinds) {
+        List<Item> best = new ArrayList<>();
+        kinds.forEach(kind -> best.addAll(node.top.getOrDefault(kind, List.of())));
+        return best;
+    }
+
+    private boolean truncated(Node node, Set<String> kinds) {
+        return kinds.stream().anyMatch(kind -> node.top.getOrDefault(kind, List.of()).size() >= nodeCapacity);
+    }
+
+    // Tous les éléments des types demandés dont un mot commence au nœud
+    private List<Item> subtree(Node node, Set<String> kinds) {
+        Map<String, Item> found = new HashMap<>();
+        List<Node> pending = new ArrayList<>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.remove(pending.size() - 1);
+            if (current.keys != null) {
+                for (String key : current.keys) {
+                    Item item = items.get(key);
+                    if (kinds.contains(item.kind())) {
+                        found.putIfAbsent(key, item);
+                    }
+                }
+            }
+            pending.addAll(current.children.values());
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private static List<Item> select(List<Item> candidates, List<String> words, int limit) {
+        return candidates.stream()
+                .filter(item -> matchesAll(item, words))
+                .sorted(BY_POPULARITY)
+                .limit(limit)
+                .toList();
+    }
+
+    private void put(Item item) {
+        write(() -> {
+            delete(item.key());
+            insert(item, true);
+        });
+    }
+
+    // Applique une écriture, et la note si une reconstruction charge ses lignes en ce moment
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordWrites(List<Runnable> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Item item, boolean refresh) {
+        if (item.terms().isEmpty()) {
+            return;
+        }
+        items.put(item.key(), item);
+        for (String term : item.terms()) {
+            List<Node> path = path(term, true);
+            Node terminal = path.get(path.size() - 1);
+            if (terminal.keys == null) {
+                terminal.keys = new HashSet<>(2);
+            }
+            terminal.keys.add(item.key());
+            if (refresh) {
+                refresh(path);
+            }
+        }
+    }
+
+    private void delete(String key) {
+        Item item = items.remove(key);
+        if (item == null) {
+            return;
+        }
+        for (String term : item.terms()) {
+            List<Node> path = path(term, false);
+            if (path == null) {
+                continue;
+            }
+            Node terminal = path.get(path.size() - 1);
+            if (terminal.keys != null) {
+                terminal.keys.remove(key);
+                if (terminal.keys.isEmpty()) {
+                    terminal.keys = null;
+                }
+            }
+            // Élagage des nœuds devenus vides, du bas vers le haut
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                if (node.keys == null && node.children.isEmpty()) {
+                    path.get(i - 1).children.remove(term.charAt(i - 1));
+                } else {
+                    break;
+                }
+            }
+            refresh(path);
+        }
+    }
+
+    // Nœuds de la racine jusqu'au mot ; null si absent et create = false
+    private List<Node> path(String term, boolean create) {
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            Node child = node.children.get(term.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node();
+                node.children.put(term.charAt(i), child);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            refreshNode(path.get(i));
+        }
+    }
+
+    // Après une construction complète : un seul passage, des feuilles vers la racine
+    private void refreshAll(Node node) {
+        node.children.values().forEach(this::refreshAll);
+        refreshNode(node);
+    }
+
+    // Meilleures suggestions d'un nœud = fusion des siennes et de celles de ses enfants
+    private void refreshNode(Node node) {
+        Map<String, Item> candidates = new LinkedHashMap<>();
+        if (node.keys != null) {
+            node.keys.forEach(key -> candidates.put(key, items.get(key)));
+        }
+        node.children.values().forEach(child -> child.top.values().forEach(list ->
+                list.forEach(item -> candidates.putIfAbsent(item.key(), item))));
+        node.top = topByKind(candidates.values());
+    }
+
+    private Map<String, List<Item>> topByKind(Collection<Item> candidates) {
+        Map<String, List<Item>> top = new HashMap<>(4);
+        candidates.stream().sorted(BY_POPULARITY).forEach(item -> {
+            List<Item> best = top.computeIfAbsent(item.kind(), kind -> new ArrayList<>());
+            if (best.size() < nodeCapacity) {
+                best.add(item);
+            }
+        });
+        top.replaceAll((kind, best) -> List.copyOf(best));
+        return top;
+    }
+
+    private static boolean matchesAll(Item item, List<String> words) {
+        for (String word : words) {
+            if (item.terms().stream().noneMatch(term -> term.startsWith(word))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Item placeItem(Long id, String name, String address, long reviewCount) {
+        Set<String> terms = new HashSet<>(TextNormalizer.tokenize(name));
+        terms.addAll(TextNormalizer.tokenize(address));
+        return new Item(PLACE + ":" + id, PLACE, id, name, address, 1 + reviewCount, terms);
+    }
+
+    private static Item eventItem(Long id, String title, String location, int registered) {
+        return new Item(EVENT + ":" + id, EVENT, id, title, location, 1 + registered,
+                new HashSet<>(TextNormalizer.tokenize(title)));
+    }
+
+    private static Item articleItem(Long id, String title, String category, boolean featured, LocalDateTime createdAt) {
+        double weight = 1 + (featured ? FEATURED_BONUS : 0);
+        if (createdAt != null) {
+            long ageDays = Duration.between(createdAt, LocalDateTime.now()).toDays();
+            weight += Math.max(0, RECENCY_DAYS - ageDays);
+        }
+        return new Item(ARTICLE + ":" + id, ARTICLE, id, title, category, weight,
+                new HashSet<>(TextNormalizer.tokenize(title)));
+    }
+
+    // Les mots vides sont absents des éléments : ignorés, sauf s'ils sont toute la requête ("l" peut débuter "lac")
+    private static List<String> queryWords(String query) {
+        List<String> words = new ArrayList<>();
+        for (String word : TextNormalizer.fold(query).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        List<String> significant = words.stream().filter(word -> !TextNormalizer.isStopWord(word)).toList();
+        return significant.isEmpty() && !words.isEmpty() ? List.of(words.get(words.size() - 1)) : significant;
+    }
+}
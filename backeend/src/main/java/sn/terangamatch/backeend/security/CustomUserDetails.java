@@ -5,6 +5,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import sn.terangamatch.backeend.model.User;
+import sn.terangamatch.backeend.model.UserRole;
+import sn.terangamatch.backeend.security.jwt.JwtClaims;
 
 import java.util.Collection;
 import java.util.List;
@@ -17,6 +19,17 @@ public class CustomUserDetails implements UserDetails {
         this.user = user;
     }
 
+    // Utilisateur reconstruit à partir du token (mode stateless) : pas de mot de passe, entité non gérée
+    public static CustomUserDetails fromClaims(JwtClaims claims) {
+        User user = User.builder()
+                .id(claims.getUserId())
+                .email(claims.getSubject())
+                .role(UserRole.valueOf(claims.getRole()))
+                .tokenVersion(claims.getTokenVersion())
+                .build();
+        return new CustomUserDetails(user);
+    }
+
     public User getUser() {
         return user;
     }
@@ -1,13 +1,19 @@
 package sn.terangamatch.backeend.security.auth;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import sn.terangamatch.backeend.model.User;
 import sn.terangamatch.backeend.repository.UserRepository;
+import sn.terangamatch.backeend.security.CustomUserDetails;
 import sn.terangamatch.backeend.security.jwt.JwtService;
+import sn.terangamatch.backeend.security.ratelimit.AuthRateLimiter;
+import sn.terangamatch.backeend.security.service.CustomUserDetailsService;
+import sn.terangamatch.backeend.service.LastLoginRecorder;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,9 +29,15 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CustomUserDetailsService userDetailsService;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final AuthRateLimiter rateLimiter;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        // Avant tout calcul BCrypt
+        rateLimiter.check("register", httpRequest.getRemoteAddr(), request.getEmail());
+
         User user = User.builder()
                 .email(request.getEmail())
                 .passwordHash(passwordEncoder.encode(request.getPassword()))
@@ -34,20 +46,22 @@ public class AuthController {
                 .build();
 
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         String token = jwtService.generateToken(user);
         return ResponseEntity.ok(new AuthResponse(token));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        authenticationManager.authenticate(
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        rateLimiter.check("login", httpRequest.getRemoteAddr(), request.getEmail());
+
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        // L'utilisateur a déjà été chargé par l'AuthenticationManager
+        User user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
 
         String token = jwtService.generateToken(user);
         return ResponseEntity.ok(new AuthResponse(token));
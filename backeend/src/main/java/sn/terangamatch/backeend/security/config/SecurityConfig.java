@@ -2,6 +2,7 @@ package sn.terangamatch.backeend.security.config;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,10 +11,10 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import sn.terangamatch.backeend.security.jwt.JwtAuthenticationFilter;
+import sn.terangamatch.backeend.security.service.BoundedPasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
@@ -29,7 +30,17 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**", "/api/public/**").permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/events").hasAnyRole("ADMIN", "ORGANIZER")
+                        .requestMatchers(HttpMethod.POST, "/api/tickets/types").hasAnyRole("ADMIN", "ORGANIZER")
+                        .requestMatchers(HttpMethod.PUT, "/api/tickets/types/**").hasAnyRole("ADMIN", "ORGANIZER")
+                        .requestMatchers(HttpMethod.GET, "/api/tickets/code/**").hasAnyRole("ADMIN", "ORGANIZER")
+                        .requestMatchers(HttpMethod.POST, "/api/places").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/places/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/places/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/guides/me").hasRole("GUIDE")
+                        .requestMatchers(HttpMethod.PUT, "/api/guides/*/verified").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/guides/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/articles/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/articles/**").hasRole("ADMIN")
                         .requestMatchers("/uploads/**").permitAll()
@@ -40,9 +51,14 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt exécuté sur un pool borné ; le coût peut être relevé sans réinitialiser les mots de passe
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength:10}") int strength,
+            @Value("${app.security.hashing.threads:4}") int threads,
+            @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, retryAfterSeconds);
     }
 
     @Bean
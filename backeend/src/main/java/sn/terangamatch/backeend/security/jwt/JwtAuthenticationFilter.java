@@ -5,9 +5,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,13 +16,30 @@ import sn.terangamatch.backeend.security.CustomUserDetails;
 import sn.terangamatch.backeend.security.service.CustomUserDetailsService;
 
 import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_TOKEN_PARAM = "access_token";
+
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    // true : l'Authentication est construite à partir des claims, sans requête sur la table users
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   CustomUserDetailsService userDetailsService,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   @Value("${app.jwt.stateless:false}") boolean stateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,23 +49,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final String expectedScope;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwt = authHeader.substring(7);
+            expectedScope = null;
+        } else if (isLiveStream(request) && request.getParameter(STREAM_TOKEN_PARAM) != null) {
+            jwt = request.getParameter(STREAM_TOKEN_PARAM);
+            expectedScope = JwtClaims.SCOPE_LIVE_STREAM;
+        } else {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // Un seul parsing/vérification par requête (ou aucun si le token est déjà en cache)
+        // Un token de flux n'ouvre que les flux, un token de session jamais via l'URL
+        Optional<JwtClaims> claims = jwtService.verify(jwt)
+                .filter(c -> Objects.equals(c.getScope(), expectedScope));
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = (CustomUserDetails) this.userDetailsService.loadUserByUsername(userEmail);
+        if (claims.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            CustomUserDetails userDetails = resolveUser(claims.get());
 
-            // On utilise getUser() pour obtenir l’entité User
-            var user = userDetails.getUser();
-
-            if (jwtService.isTokenValid(jwt, user)) {
+            if (userDetails != null) {
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(
@@ -58,4 +81,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // GET /api/events/live/stream et /api/events/{id}/stream
+    private static boolean isLiveStream(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "GET".equals(request.getMethod()) && path.startsWith("/api/events/") && path.endsWith("/stream");
+    }
+
+    // null si le token a été révoqué ou ne correspond plus à un utilisateur
+    private CustomUserDetails resolveUser(JwtClaims claims) {
+        if (tokenVersionRegistry.isRevoked(claims)) {
+            return null;
+        }
+
+        if (stateless && claims.isSelfContained()) {
+            return CustomUserDetails.fromClaims(claims);
+        }
+
+        try {
+            var userDetails = (CustomUserDetails) this.userDetailsService.loadUserByUsername(claims.getSubject());
+
+            // On utilise getUser() pour obtenir l’entité User
+            var user = userDetails.getUser();
+
+            if (claims.getTokenVersion() < user.getTokenVersion()) {
+                return null;
+            }
+            return userDetails;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package sn.terangamatch.backeend.security.jwt;
+
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.time.Instant;
+
+// Vue immuable des claims d'un token déjà vérifié (signature + expiration)
+@Value
+public class JwtClaims {
+    String subject;
+    String role;
+    Long userId; // null pour les tokens émis avant l'ajout du claim "uid"
+    int tokenVersion;
+    Instant issuedAt;
+    Instant expiresAt;
+    String scope; // null pour un token de session ; SCOPE_LIVE_STREAM pour un token de flux SSE
+
+    public static final String SCOPE_LIVE_STREAM = "live-stream";
+
+    public static JwtClaims from(Claims claims) {
+        Number userId = claims.get("uid", Number.class);
+        Number tokenVersion = claims.get("ver", Number.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                userId != null ? userId.longValue() : null,
+                tokenVersion != null ? tokenVersion.intValue() : 0,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant(),
+                claims.get("scope", String.class)
+        );
+    }
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+
+    // Suffisant pour construire l'Authentication sans relire la table users
+    public boolean isSelfContained() {
+        return userId != null && role != null;
+    }
+}
@@ -3,19 +3,63 @@ package sn.terangamatch.backeend.security.jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import sn.terangamatch.backeend.cache.BoundedCache;
+import sn.terangamatch.backeend.cache.CacheRegistry;
 import sn.terangamatch.backeend.model.User;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Jeton court passé en query string aux flux SSE (EventSource n'envoie pas d'en-tête). Vérifié à
+    // l'ouverture du flux seulement : toute reconnexion doit en redemander un (subscribeLiveScores côté front)
+    public static final long STREAM_TOKEN_VALIDITY_MILLIS = 1000 * 60 * 5; // 5 min
     private static final String SECRET_KEY = "TerangaMatchSuperSecretKeyForJWT_ChangeThisKey!!!";
+    public static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 60 * 24; // 24h
+
+    // Clé et parser construits une seule fois (thread-safe)
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+
+    // Tokens déjà vérifiés, indexés par empreinte SHA-256, valables jusqu'à leur "exp"
+    private final BoundedCache<String, JwtClaims> verifiedTokens;
+
+    public JwtService(CacheRegistry cacheRegistry,
+                      @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.verifiedTokens = cacheRegistry.create("jwt-verified-tokens", verifiedCacheSize,
+                Duration.ofMillis(TOKEN_VALIDITY_MILLIS));
+    }
+
+    // Vérifie le token une seule fois ; vide si signature invalide, token mal formé ou expiré
+    public Optional<JwtClaims> verify(String token) {
+        String digest = digest(token);
+        Optional<JwtClaims> cached = verifiedTokens.get(digest);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        try {
+            JwtClaims claims = JwtClaims.from(extractAllClaims(token));
+            verifiedTokens.put(digest, claims, claims.getExpiresAt().toEpochMilli());
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -29,41 +73,48 @@ public class JwtService {
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", user.getRole().name());
-        return createToken(claims, user.getEmail());
+        claims.put("uid", user.getId());
+        claims.put("ver", user.getTokenVersion());
+        return createToken(claims, user.getEmail(), TOKEN_VALIDITY_MILLIS);
+    }
+
+    // Accepté uniquement sur les flux SSE, jamais comme Bearer
+    public String generateStreamToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", user.getRole().name());
+        claims.put("uid", user.getId());
+        claims.put("ver", user.getTokenVersion());
+        claims.put("scope", JwtClaims.SCOPE_LIVE_STREAM);
+        return createToken(claims, user.getEmail(), STREAM_TOKEN_VALIDITY_MILLIS);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long validityMillis) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24h
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, User user) {
-        final String username = extractUsername(token);
-        return username.equals(user.getEmail()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token)
+                .map(claims -> claims.getSubject().equals(user.getEmail()) && !claims.isExpired())
+                .orElse(false);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 }
@@ -0,0 +1,67 @@
+package sn.terangamatch.backeend.security.jwt;
+
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.repository.UserRepository;
+import sn.terangamatch.backeend.repository.UserRevocationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste de révocation pour le mode d'authentification "claims only".
+ * Ne contient que les utilisateurs dont la version de token a changé ou qui ont été supprimés.
+ * Les deux sont persistés (users.token_version, user_revocations) : la liste est rechargée au
+ * démarrage et rafraîchie périodiquement pour suivre les changements faits sur les autres nœuds.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final UserRevocationRepository userRevocationRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    // utilisateur supprimé -> date de suppression
+    private final Map<Long, LocalDateTime> deletedUsers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-refresh-ms:30000}")
+    public void refresh() {
+        userRepository.findByTokenVersionGreaterThan(0)
+                .forEach(v -> updateVersion(v.getId(), v.getTokenVersion()));
+        LocalDateTime horizon = LocalDateTime.now().minus(Duration.ofMillis(JwtService.TOKEN_VALIDITY_MILLIS));
+        userRevocationRepository.findByRevokedAtAfter(horizon)
+                .forEach(r -> deletedUsers.putIfAbsent(r.getUserId(), r.getRevokedAt()));
+        deletedUsers.values().removeIf(revokedAt -> revokedAt.isBefore(horizon));
+        userRevocationRepository.deleteExpired(horizon);
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        Long userId = claims.getUserId();
+        if (userId == null) {
+            return false;
+        }
+        return deletedUsers.containsKey(userId)
+                || claims.getTokenVersion() < versions.getOrDefault(userId, 0);
+    }
+
+    public void updateVersion(Long userId, int tokenVersion) {
+        versions.merge(userId, tokenVersion, Math::max);
+    }
+
+    // Effet local immédiat ; la ligne user_revocations est écrite par UserService.deleteUser
+    public void markDeleted(Long userId, LocalDateTime revokedAt) {
+        deletedUsers.put(userId, revokedAt);
+        versions.remove(userId);
+    }
+}
@@ -0,0 +1,80 @@
+package sn.terangamatch.backeend.security.ratelimit;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.exception.TooManyRequestsException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiteur "token bucket" sans verrou pour /api/auth, par IP et par email ciblé.
+ * Chaque clé n'occupe qu'un AtomicLong : l'instant théorique de la prochaine requête (algorithme GCRA),
+ * mis à jour par compareAndSet.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimiter {
+
+    private final RateLimitProperties properties;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public void check(String route, String clientIp, String email) {
+        RateLimitProperties.RouteLimit limits = properties.getRoutes().get(route);
+        if (limits == null) {
+            return;
+        }
+        if (clientIp != null) {
+            acquire(route, "per-ip", clientIp, limits.getPerIp());
+        }
+        if (email != null && !email.isBlank()) {
+            acquire(route, "per-email", email.trim().toLowerCase(Locale.ROOT), limits.getPerEmail());
+        }
+    }
+
+    public RateLimitStats stats() {
+        Map<String, Long> rejected = new TreeMap<>();
+        rejections.forEach((key, counter) -> rejected.put(key, counter.sum()));
+        return new RateLimitStats(buckets.size(), rejected);
+    }
+
+    // Les clés dont le seau est de nouveau plein n'ont plus d'état utile
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+
+    private void acquire(String route, String dimension, String key, RateLimitProperties.Limit limit) {
+        if (limit == null || limit.getCapacity() <= 0 || limit.getPeriod() == null) {
+            return;
+        }
+        long period = limit.getPeriod().toNanos();
+        long interval = period / limit.getCapacity();
+        long now = System.nanoTime();
+
+        AtomicLong tat = buckets.computeIfAbsent(route + ':' + dimension + ':' + key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - period;
+            if (excess > 0) {
+                rejections.computeIfAbsent(route + '.' + dimension, k -> new LongAdder()).increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(excess + TimeUnit.SECONDS.toNanos(1) - 1));
+                throw new TooManyRequestsException("Trop de tentatives, veuillez réessayer plus tard", retryAfter);
+            }
+            if (tat.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
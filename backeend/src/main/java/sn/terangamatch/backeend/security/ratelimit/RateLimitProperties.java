@@ -0,0 +1,32 @@
+package sn.terangamatch.backeend.security.ratelimit;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Limites par route (clé = "login", "register"...) définies dans application.properties
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private Map<String, RouteLimit> routes = new HashMap<>();
+
+    @Data
+    public static class RouteLimit {
+        private Limit perIp;
+        private Limit perEmail;
+    }
+
+    // "capacity" requêtes autorisées par "period", en rafale comprise
+    @Data
+    public static class Limit {
+        private int capacity;
+        private Duration period;
+    }
+}
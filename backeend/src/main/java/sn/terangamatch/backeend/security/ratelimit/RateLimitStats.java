@@ -0,0 +1,12 @@
+package sn.terangamatch.backeend.security.ratelimit;
+
+
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+public class RateLimitStats {
+    int trackedKeys;
+    Map<String, Long> rejections; // ex : "login.per-ip" -> 42
+}
@@ -1,25 +1,75 @@
 package sn.terangamatch.backeend.security.service;
 
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import sn.terangamatch.backeend.cache.BoundedCache;
+import sn.terangamatch.backeend.cache.CacheRegistry;
 import sn.terangamatch.backeend.model.User;
 import sn.terangamatch.backeend.repository.UserRepository;
 import sn.terangamatch.backeend.security.CustomUserDetails;
 
+import java.time.Duration;
+
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    // Cache "read-through" par email, invalidé explicitement par UserService et AuthController
+    private final BoundedCache<String, CustomUserDetails> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    CacheRegistry cacheRegistry,
+                                    @Value("${app.cache.user-details.max-size:5000}") int maxSize,
+                                    @Value("${app.cache.user-details.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = cacheRegistry.create("user-details", maxSize, ttl);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = cache.get(email, this::loadFromDatabase);
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("Utilisateur non trouvé : " + email);
+        }
+        return userDetails;
+    }
+
+    // Appelé par DaoAuthenticationProvider après un login réussi si le hash utilise un coût BCrypt obsolète
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        User updated = snapshot(((CustomUserDetails) user).getUser());
+        updated.setPasswordHash(newPassword);
+        return new CustomUserDetails(updated);
+    }
+
+    public void evict(String email) {
+        cache.evict(email);
+    }
+
+    private CustomUserDetails loadFromDatabase(String email) {
+        return userRepository.findByEmail(email)
+                .map(user -> new CustomUserDetails(snapshot(user)))
+                .orElse(null);
+    }
+
+    // Copie détachée des seules colonnes utiles : l'objet en cache est partagé entre les requêtes
+    private static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .lastLogin(user.getLastLogin())
+                .tokenVersion(user.getTokenVersion())
+                .build();
     }
 }
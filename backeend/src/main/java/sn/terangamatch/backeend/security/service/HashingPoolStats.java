@@ -0,0 +1,14 @@
+package sn.terangamatch.backeend.security.service;
+
+
+import lombok.Value;
+
+@Value
+public class HashingPoolStats {
+    int threads;
+    int active;
+    int queued;
+    int remainingCapacity;
+    long completed;
+    long rejected;
+}
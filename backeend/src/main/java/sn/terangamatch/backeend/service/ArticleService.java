@@ -1,40 +1,199 @@
 package sn.terangamatch.backeend.service;
 
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import sn.terangamatch.backeend.cache.BoundedCache;
+import sn.terangamatch.backeend.cache.CacheRegistry;
+import sn.terangamatch.backeend.cache.ContentVersions;
+import sn.terangamatch.backeend.dto.ArticleDTO;
+import sn.terangamatch.backeend.dto.ArticlePageDTO;
+import sn.terangamatch.backeend.dto.ArticleSummaryDTO;
+import sn.terangamatch.backeend.exception.BadRequestException;
 import sn.terangamatch.backeend.model.Article;
 import sn.terangamatch.backeend.repository.ArticleRepository;
+import sn.terangamatch.backeend.search.ArticleSearchIndex;
+import sn.terangamatch.backeend.search.SuggestionIndex;
 
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ArticleService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final UploadStorageService uploadStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ContentVersions contentVersions;
+
+    // Copies immuables : article par id, et premières pages de liste (par catégorie / tri / taille)
+    private final BoundedCache<Long, ArticleDTO> articleCache;
+    private final BoundedCache<String, ArticlePageDTO> firstPageCache;
+
+    public ArticleService(ArticleRepository articleRepository,
+                          ArticleSearchIndex searchIndex,
+                          SuggestionIndex suggestionIndex,
+                          UploadStorageService uploadStorageService,
+                          ImageDerivativeService imageDerivativeService,
+                          ContentVersions contentVersions,
+                          CacheRegistry cacheRegistry,
+                          @Value("${app.cache.articles.max-size:1000}") int articlesMaxSize,
+                          @Value("${app.cache.articles.ttl:10m}") Duration articlesTtl,
+                          @Value("${app.cache.article-pages.max-size:200}") int pagesMaxSize,
+                          @Value("${app.cache.article-pages.ttl:2m}") Duration pagesTtl) {
+        this.articleRepository = articleRepository;
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.uploadStorageService = uploadStorageService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.contentVersions = contentVersions;
+        this.articleCache = cacheRegistry.create("articles", articlesMaxSize, articlesTtl);
+        this.firstPageCache = cacheRegistry.create("article-pages", pagesMaxSize, pagesTtl);
+    }
 
     public List<Article> getAllArticles() {
         return articleRepository.findAll();
     }
 
+    // Liste paginée par curseur (createdAt, id), sans charger le contenu des articles
+    public ArticlePageDTO listArticles(String category, boolean featuredFirst, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String categoryFilter = category != null && !category.isBlank() ? category.trim() : null;
+
+        ArticlePageDTO page;
+        if (cursor == null || cursor.isBlank()) {
+            // La première page est de loin la plus demandée : elle passe par le cache
+            // Version de la collection dans la clé : une écriture faite sur un autre nœud contourne le cache
+            String key = contentVersions.collectionVersion(ContentVersions.ARTICLES) + "|"
+                    + (categoryFilter != null ? categoryFilter.toLowerCase() : "") + "|" + featuredFirst + "|" + pageSize;
+            page = firstPageCache.get(key, k -> loadPage(categoryFilter, featuredFirst, null, pageSize));
+        } else {
+            page = loadPage(categoryFilter, featuredFirst, Cursor.decode(cursor), pageSize);
+        }
+        return withImageVariants(page.getItems(), page.getNextCursor());
+    }
+
+    private ArticlePageDTO loadPage(String category, boolean featuredFirst, Cursor position, int pageSize) {
+        // Une ligne de plus pour savoir s'il existe une page suivante
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<ArticleSummaryDTO> items;
+        if (position == null) {
+            items = featuredFirst
+                    ? articleRepository.findFeaturedFirstSummaries(category, page)
+                    : articleRepository.findRecentSummaries(category, page);
+        } else {
+            items = featuredFirst
+                    ? articleRepository.findFeaturedFirstSummariesAfter(category, position.featured,
+                            position.createdAt, position.id, page)
+                    : articleRepository.findRecentSummariesAfter(category, position.createdAt, position.id, page);
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = Cursor.encode(items.get(pageSize - 1));
+        }
+        return new ArticlePageDTO(List.copyOf(items), nextCursor);
+    }
+
+    // Depuis le cache si l'article y est, sinon une requête sur la seule colonne updatedAt
+    public Optional<String> getArticleEtag(Long id) {
+        Optional<LocalDateTime> updatedAt = articleCache.get(id).map(ArticleDTO::getUpdatedAt);
+        return updatedAt.or(() -> articleRepository.findUpdatedAtById(id))
+                .map(version -> ContentVersions.entityEtag(ContentVersions.ARTICLES, id, version));
+    }
+
+    public String getArticlesEtag() {
+        return contentVersions.collectionEtag(ContentVersions.ARTICLES);
+    }
+
+    // Entité gérée, pour les écritures
     public Optional<Article> getArticleById(Long id) {
         return articleRepository.findById(id);
     }
 
+    // Lecture publique : copie immuable en cache, image = variante "full" si disponible
+    public Optional<ArticleDTO> getArticleSnapshot(Long id) {
+        return Optional.ofNullable(articleCache.get(id, key -> articleRepository.findById(key)
+                        .map(ArticleDTO::from)
+                        .orElse(null)))
+                .map(article -> article.withImage(
+                        imageDerivativeService.bestUrl(article.getImage(), ImageDerivativeService.Variant.FULL)));
+    }
+
     public Article createArticle(Article article) {
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        searchIndex.index(saved);
+        suggestionIndex.indexArticle(saved);
+        invalidate(null);
+        return saved;
     }
 
     public void deleteArticle(Long id) {
-        articleRepository.deleteById(id);
+        articleRepository.findById(id).ifPresent(article -> {
+            articleRepository.delete(article);
+            searchIndex.remove(id);
+            suggestionIndex.remove(SuggestionIndex.ARTICLE, id);
+            invalidate(id);
+            releaseImage(article.getImage());
+        });
     }
 
-    public List<Article> searchArticles(String query) {
-        return articleRepository.findByTitleContainingIgnoreCaseOrExcerptContainingIgnoreCase(query, query);
+    // Les fichiers étant dédupliqués, on ne supprime l'image que si plus aucun article ne l'utilise
+    public void releaseImage(String imageUrl) {
+        if (imageUrl != null) {
+            uploadStorageService.release(imageUrl, () -> articleRepository.existsByImage(imageUrl),
+                    () -> imageDerivativeService.deleteVariants(imageUrl));
+        }
+    }
+
+    // Les listes affichent des cartes : inutile d'envoyer l'image en pleine résolution
+    private ArticlePageDTO withImageVariants(List<ArticleSummaryDTO> items, String nextCursor) {
+        List<ArticleSummaryDTO> withVariants = items.stream()
+                .map(summary -> summary.toBuilder()
+                        .image(imageDerivativeService.bestUrl(summary.getImage(), ImageDerivativeService.Variant.CARD))
+                        .thumbnail(imageDerivativeService.bestUrl(summary.getImage(), ImageDerivativeService.Variant.THUMB))
+                        .build())
+                .collect(Collectors.toList());
+        return new ArticlePageDTO(withVariants, nextCursor);
+    }
+
+    // Recherche plein texte via l'index mémoire ; le curseur est ici le rang du premier résultat
+    public ArticlePageDTO searchArticleSummaries(String query, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int offset = parseOffset(cursor);
+
+        ArticleSearchIndex.SearchHits hits = searchIndex.search(query, offset, pageSize);
+        Map<Long, ArticleSummaryDTO> summaries = hits.ids().isEmpty()
+                ? Map.of()
+                : articleRepository.findSummariesByIds(hits.ids()).stream()
+                        .collect(Collectors.toMap(ArticleSummaryDTO::getId, Function.identity()));
+
+        // On conserve l'ordre de pertinence de l'index
+        List<ArticleSummaryDTO> items = hits.ids().stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        String nextCursor = offset + pageSize < hits.total() ? String.valueOf(offset + pageSize) : null;
+        return withImageVariants(items, nextCursor);
     }
 
     public List<Article> getArticlesByCategory(String category) {
@@ -42,6 +201,60 @@ public class ArticleService {
     }
 
     public Article updateArticle(Article article) {
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        searchIndex.index(saved);
+        suggestionIndex.indexArticle(saved);
+        invalidate(saved.getId());
+        return saved;
+    }
+
+    // Les réponses servaient l'original : nouvel updatedAt (ETag de l'article) et nouvelle version de collection
+    @EventListener
+    public void onImageVariantsReady(ImageVariantsReady ready) {
+        List<Long> ids = articleRepository.findIdsByImage(ready.originalUrl());
+        if (ids.isEmpty()) {
+            return;
+        }
+        articleRepository.touchByImage(ready.originalUrl(), LocalDateTime.now());
+        ids.forEach(articleCache::evict);
+        invalidate(null);
+    }
+
+    // Une écriture peut changer n'importe quelle page de liste, mais un seul article
+    private void invalidate(Long articleId) {
+        if (articleId != null) {
+            articleCache.evict(articleId);
+        }
+        firstPageCache.clear();
+        contentVersions.bump(ContentVersions.ARTICLES);
+    }
+
+    private static int parseOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+
+    // Curseur opaque : "featured|createdAt|id" encodé en base64 url
+    private record Cursor(boolean featured, LocalDateTime createdAt, Long id) {
+
+        static String encode(ArticleSummaryDTO last) {
+            String raw = last.isFeatured() + "|" + last.getCreatedAt() + "|" + last.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(Boolean.parseBoolean(parts[0]), LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Curseur de pagination invalide");
+            }
+        }
     }
 }
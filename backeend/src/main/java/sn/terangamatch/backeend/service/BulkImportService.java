@@ -0,0 +1,269 @@
+package sn.terangamatch.backeend.service;
+
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.terangamatch.backeend.dto.ImportResultDTO;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+import sn.terangamatch.backeend.model.User;
+import sn.terangamatch.backeend.model.UserRole;
+import sn.terangamatch.backeend.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse (NDJSON ou CSV avec en-tête) lu en flux et validé par lots de taille fixe :
+ * une transaction par lot, contexte de persistance vidé après chaque lot.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final EventService eventService;
+    private final PlaceService placeService;
+    private final int chunkSize;
+
+    public BulkImportService(EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             EventService eventService,
+                             PlaceService placeService,
+                             @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.eventService = eventService;
+        this.placeService = placeService;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResultDTO importUsers(InputStream input, boolean csv) throws IOException {
+        return importRecords("users", input, csv, this::toUser, this::withoutExistingEmails);
+    }
+
+    public ImportResultDTO importPlaces(InputStream input, boolean csv) throws IOException {
+        ImportResultDTO result = importRecords("places", input, csv, this::toPlace, Function.identity());
+        placeService.reindexAll();
+        return result;
+    }
+
+    public ImportResultDTO importEvents(InputStream input, boolean csv) throws IOException {
+        ImportResultDTO result = importRecords("events", input, csv, this::toEvent, Function.identity());
+        eventService.invalidateAll();
+        return result;
+    }
+
+    private <T> ImportResultDTO importRecords(String entity,
+                                              InputStream input,
+                                              boolean csv,
+                                              Function<Map<String, String>, T> mapper,
+                                              Function<List<T>, List<T>> chunkFilter) throws IOException {
+        ImportResultDTO result = ImportResultDTO.builder().entity(entity).build();
+        List<T> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                try {
+                    Map<String, String> record = csv ? toRecord(header, parseCsvLine(line)) : parseJsonLine(line);
+                    chunk.add(mapper.apply(record));
+                } catch (RuntimeException e) {
+                    reject(result, "ligne " + lineNumber + " : " + e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    commit(result, chunk, chunkFilter);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commit(result, chunk, chunkFilter);
+        }
+        return result;
+    }
+
+    private <T> void commit(ImportResultDTO result, List<T> chunk, Function<List<T>, List<T>> chunkFilter) {
+        try {
+            int saved = transactionTemplate.execute(status -> {
+                List<T> toSave = chunkFilter.apply(chunk);
+                toSave.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+                return toSave.size();
+            });
+            result.setImported(result.getImported() + saved);
+            result.setRejected(result.getRejected() + chunk.size() - saved);
+        } catch (RuntimeException e) {
+            log.warn("Échec d'un lot d'import ({} lignes)", chunk.size(), e);
+            result.setRejected(result.getRejected() + chunk.size());
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add("lot " + (result.getChunks() + 1) + " annulé : " + e.getMessage());
+            }
+        }
+        result.setChunks(result.getChunks() + 1);
+    }
+
+    private void reject(ImportResultDTO result, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    // Une seule requête par lot pour écarter les emails déjà présents (ou dupliqués dans le lot)
+    private List<User> withoutExistingEmails(List<User> users) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                users.stream().map(User::getEmail).collect(Collectors.toSet())));
+        return users.stream()
+                .filter(user -> existing.add(user.getEmail()))
+                .collect(Collectors.toList());
+    }
+
+    private User toUser(Map<String, String> record) {
+        String email = required(record, "email").trim().toLowerCase(Locale.ROOT);
+        String passwordHash = record.get("passwordHash");
+        if (passwordHash == null || passwordHash.isBlank()) {
+            passwordHash = passwordEncoder.encode(required(record, "password"));
+        }
+        return User.builder()
+                .email(email)
+                .passwordHash(passwordHash)
+                .role(UserRole.valueOf(required(record, "role").toUpperCase(Locale.ROOT)))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Place toPlace(Map<String, String> record) {
+        return Place.builder()
+                .name(required(record, "name"))
+                .description(record.get("description"))
+                .type(PlaceType.valueOf(required(record, "type").toUpperCase(Locale.ROOT)))
+                .address(record.get("address"))
+                .latitude(toDouble(record.get("latitude")))
+                .longitude(toDouble(record.get("longitude")))
+                .openingHours(record.get("openingHours"))
+                .build();
+    }
+
+    private Event toEvent(Map<String, String> record) {
+        return Event.builder()
+                .title(required(record, "title"))
+                .description(record.get("description"))
+                .location(record.get("location"))
+                .type(record.get("type"))
+                .category(record.get("category"))
+                .status(record.get("status"))
+                .price(record.get("price"))
+                .date(toDateTime(record.get("date")))
+                .startDateTime(toDateTime(record.get("startDateTime")))
+                .endDateTime(toDateTime(record.get("endDateTime")))
+                .build();
+    }
+
+    private static String required(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("champ obligatoire manquant : " + field);
+        }
+        return value;
+    }
+
+    private static Double toDouble(String value) {
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+
+    private static LocalDateTime toDateTime(String value) {
+        return value == null || value.isBlank() ? null : LocalDateTime.parse(value.trim());
+    }
+
+    private Map<String, String> parseJsonLine(String line) {
+        try {
+            Map<String, Object> values = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+            Map<String, String> record = new HashMap<>();
+            values.forEach((key, value) -> record.put(key, value != null ? value.toString() : null));
+            return record;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON invalide");
+        }
+    }
+
+    private static Map<String, String> toRecord(List<String> header, List<String> values) {
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            record.put(header.get(i).trim(), values.get(i));
+        }
+        return record;
+    }
+
+    // CSV simple (RFC 4180) : séparateur virgule, champs entre guillemets, "" pour un guillemet
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.terangamatch.backeend.dto.RegistrationDTO;
+import sn.terangamatch.backeend.exception.ConflictException;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.repository.EventRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inscriptions aux événements sans charger ni réécrire la collection participants :
+ * une ligne dans event_participants (unique sur event_id, user_id) et un compteur
+ * ajusté par un update conditionnel. Deux inscriptions concurrentes ne se sérialisent
+ * que sur la ligne de l'événement, le temps d'un update.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventRegistrationService {
+
+    private final EventRepository eventRepository;
+    private final EventService eventService;
+
+    @Transactional
+    public RegistrationDTO register(Long eventId, Long userId) {
+        // Avant l'insertion : un id inconnu ferait échouer la clé étrangère de event_participants
+        if (!eventRepository.existsById(eventId)) {
+            throw new NotFoundException("Événement non trouvé");
+        }
+        int inserted;
+        try {
+            inserted = eventRepository.insertParticipant(eventId, userId);
+        } catch (DataIntegrityViolationException e) {
+            // Événement supprimé entre la vérification et l'insertion
+            throw new NotFoundException("Événement non trouvé");
+        }
+        if (inserted == 0) {
+            // Déjà inscrit : l'opération est idempotente
+            return status(eventId, true);
+        }
+        if (eventRepository.incrementRegistered(eventId, LocalDateTime.now()) == 0) {
+            // Rollback de l'insertion via l'exception
+            throw new ConflictException("Événement complet");
+        }
+        invalidateAfterCommit(eventId);
+        return status(eventId, true);
+    }
+
+    @Transactional
+    public RegistrationDTO unregister(Long eventId, Long userId) {
+        if (eventRepository.deleteParticipant(eventId, userId) > 0) {
+            eventRepository.decrementRegistered(eventId, LocalDateTime.now());
+            invalidateAfterCommit(eventId);
+        }
+        return status(eventId, false);
+    }
+
+    @Transactional(readOnly = true)
+    public RegistrationDTO getRegistration(Long eventId, Long userId) {
+        return status(eventId, eventRepository.isParticipant(eventId, userId));
+    }
+
+    // Évincer avant le commit laisserait une lecture concurrente remettre l'ancien compteur en cache
+    private void invalidateAfterCommit(Long eventId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventService.invalidate(eventId);
+            }
+        });
+    }
+
+    private RegistrationDTO status(Long eventId, boolean participant) {
+        EventRepository.SeatCount seats = eventRepository.findSeatCountById(eventId)
+                .orElseThrow(() -> new NotFoundException("Événement non trouvé"));
+        Integer capacity = seats.getCapacity();
+        return RegistrationDTO.builder()
+                .eventId(eventId)
+                .participant(participant)
+                .registered(seats.getRegistered())
+                .capacity(capacity)
+                .remainingSeats(capacity != null ? Math.max(0, capacity - seats.getRegistered()) : null)
+                .build();
+    }
+}
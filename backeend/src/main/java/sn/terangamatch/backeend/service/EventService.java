@@ -1,40 +1,170 @@
 package sn.terangamatch.backeend.service;
 
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import sn.terangamatch.backeend.cache.BoundedCache;
+import sn.terangamatch.backeend.cache.CacheRegistry;
+import sn.terangamatch.backeend.cache.ContentVersions;
+import sn.terangamatch.backeend.dto.EventDTO;
+import sn.terangamatch.backeend.dto.EventDetailDTO;
+import sn.terangamatch.backeend.dto.EventPageDTO;
+import sn.terangamatch.backeend.dto.EventSearchCriteria;
+import sn.terangamatch.backeend.dto.LiveDataDTO;
+import sn.terangamatch.backeend.dto.LiveUpdateDTO;
+import sn.terangamatch.backeend.dto.ParticipantPageDTO;
+import sn.terangamatch.backeend.dto.UserSummaryDTO;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.exception.ConflictException;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.live.LiveScoreBroadcaster;
+import sn.terangamatch.backeend.model.LiveData;
+import sn.terangamatch.backeend.model.Profile;
+import sn.terangamatch.backeend.model.User;
 import sn.terangamatch.backeend.model.Event;
 import sn.terangamatch.backeend.repository.EventRepository;
+import sn.terangamatch.backeend.repository.EventSpecifications;
+import sn.terangamatch.backeend.search.SuggestionIndex;
 
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class EventService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ALL_TYPES = "*";
+    private static final Sort SEARCH_ORDER = Sort.by("date", "id");
+
     private final EventRepository eventRepository;
+    private final ContentVersions contentVersions;
+    private final LiveScoreBroadcaster liveScoreBroadcaster;
+    private final EventStatusScheduler statusScheduler;
+    private final SuggestionIndex suggestionIndex;
+    private final TicketService ticketService;
+
+    // Copies immuables : événement par id, et listes par version de la collection et type ("*" = tous)
+    private final BoundedCache<Long, EventDetailDTO> eventCache;
+    private final BoundedCache<String, List<EventDTO>> eventListCache;
+
+    public EventService(EventRepository eventRepository,
+                        ContentVersions contentVersions,
+                        LiveScoreBroadcaster liveScoreBroadcaster,
+                        EventStatusScheduler statusScheduler,
+                        SuggestionIndex suggestionIndex,
+                        TicketService ticketService,
+                        CacheRegistry cacheRegistry,
+                        @Value("${app.cache.events.max-size:1000}") int eventsMaxSize,
+                        @Value("${app.cache.events.ttl:5m}") Duration eventsTtl,
+                        @Value("${app.cache.event-lists.max-size:50}") int listsMaxSize,
+                        @Value("${app.cache.event-lists.ttl:1m}") Duration listsTtl) {
+        this.eventRepository = eventRepository;
+        this.contentVersions = contentVersions;
+        this.liveScoreBroadcaster = liveScoreBroadcaster;
+        this.statusScheduler = statusScheduler;
+        this.suggestionIndex = suggestionIndex;
+        this.ticketService = ticketService;
+        this.eventCache = cacheRegistry.create("events", eventsMaxSize, eventsTtl);
+        this.eventListCache = cacheRegistry.create("event-lists", listsMaxSize, listsTtl);
+    }
 
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    public List<EventDTO> getAllEvents() {
+        return eventListCache.get(listKey(ALL_TYPES), key -> toDTOs(eventRepository.findAll()));
     }
 
+    // Depuis le cache si l'événement y est, sinon une requête sur la seule colonne updated_at
+    public Optional<String> getEventEtag(Long id) {
+        Optional<LocalDateTime> updatedAt = eventCache.get(id).map(detail -> detail.getEvent().getUpdatedAt());
+        return updatedAt.or(() -> eventRepository.findUpdatedAtById(id))
+                .map(version -> ContentVersions.entityEtag(ContentVersions.EVENTS, id, version));
+    }
+
+    public String getEventsEtag() {
+        return contentVersions.collectionEtag(ContentVersions.EVENTS);
+    }
+
+    // Entité gérée, pour les écritures
     public Event getEventById(Long id) {
         return eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Événement non trouvé"));
     }
 
-    public List<Event> getEventsByType(String type) {
-        return eventRepository.findByType(type);
+    // Vue détail en une requête (événement + organisateur), jamais les participants
+    public EventDetailDTO getEventSnapshot(Long id) {
+        return eventCache.get(id, key -> toDetail(eventRepository.findDetailedById(key)
+                .orElseThrow(() -> new NotFoundException("Événement non trouvé"))));
+    }
+
+    public ParticipantPageDTO getParticipants(Long eventId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int total = getEventSnapshot(eventId).getEvent().getRegistered();
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0L : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+        List<UserSummaryDTO> rows = eventRepository.findParticipants(eventId, afterId, PageRequest.of(0, pageSize + 1));
+        List<UserSummaryDTO> items = rows.size() > pageSize ? List.copyOf(rows.subList(0, pageSize)) : rows;
+        String nextCursor = rows.size() > pageSize ? String.valueOf(items.get(pageSize - 1).getId()) : null;
+        return new ParticipantPageDTO(items, total, nextCursor);
+    }
+
+    public List<EventDTO> getEventsByType(String type) {
+        return eventListCache.get(listKey(type), key -> toDTOs(eventRepository.findByType(type)));
+    }
+
+    // Version de la collection dans la clé : une écriture faite sur un autre nœud contourne la liste en cache
+    private String listKey(String type) {
+        return contentVersions.collectionVersion(ContentVersions.EVENTS) + "|" + type;
+    }
+
+    // Tri (date, id) croissant ; une ligne de plus que la page pour savoir s'il y a une suite
+    public EventPageDTO searchEvents(EventSearchCriteria criteria, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Specification<Event> spec = EventSpecifications.matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = Cursor.decode(cursor);
+            spec = spec.and(EventSpecifications.after(position.date(), position.id()));
+        }
+        List<Event> rows = eventRepository.findBy(spec, query -> query.sortBy(SEARCH_ORDER).limit(pageSize + 1).all());
+
+        List<EventDTO> items = toDTOs(rows.size() > pageSize ? rows.subList(0, pageSize) : rows);
+        String nextCursor = rows.size() > pageSize ? Cursor.encode(items.get(pageSize - 1)) : null;
+        return new EventPageDTO(items, nextCursor);
     }
 
     public Event createEvent(Event event) {
-        return eventRepository.save(event);
+        // Le compteur ne part que de zéro ; il évolue ensuite par inscription
+        event.setRegistered(0);
+        applyScheduledStatus(event);
+        Event saved = eventRepository.save(event);
+        statusScheduler.track(saved);
+        suggestionIndex.indexEvent(saved);
+        invalidate(null);
+        return saved;
     }
 
     public Event updateEvent(Long id, Event updated) {
         Event event = getEventById(id);
+        boolean wasLive = event.isLive();
+        String previousStatus = event.getStatus();
+        LiveData previousLiveData = event.getLiveData();
         event.setTitle(updated.getTitle());
         event.setDescription(updated.getDescription());
         event.setLocation(updated.getLocation());
@@ -42,14 +172,139 @@ public class EventService {
         event.setCategory(updated.getCategory());
         event.setStatus(updated.getStatus());
         event.setDate(updated.getDate());
+        event.setStartDateTime(updated.getStartDateTime());
+        event.setEndDateTime(updated.getEndDateTime());
+        applyScheduledStatus(event);
         event.setPrice(updated.getPrice());
         event.setLive(updated.isLive());
-        event.setRegistered(updated.getRegistered());
+        // Capacité absente : inchangée ; jamais en dessous des inscrits, même en concurrence avec une inscription
+        if (updated.getCapacity() != null && !updated.getCapacity().equals(event.getCapacity())) {
+            if (updated.getCapacity() < 0) {
+                throw new BadRequestException("Capacité invalide");
+            }
+            if (eventRepository.updateCapacity(id, updated.getCapacity()) == 0) {
+                throw new ConflictException("La capacité ne peut pas être inférieure au nombre d'inscrits");
+            }
+            event.setCapacity(updated.getCapacity());
+        }
         event.setLiveData(updated.getLiveData());
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        statusScheduler.track(saved);
+        suggestionIndex.indexEvent(saved);
+        invalidate(id);
+        if (wasLive != saved.isLive()
+                || !Objects.equals(previousStatus, saved.getStatus())
+                || !Objects.equals(previousLiveData, saved.getLiveData())) {
+            liveScoreBroadcaster.publish(toLiveUpdate(saved));
+        }
+        return saved;
     }
 
+    @Transactional
     public void deleteEvent(Long id) {
+        ticketService.deleteForEvent(id);
         eventRepository.deleteById(id);
+        // Un rollback (avis liés...) laisserait sinon l'événement hors des index et du suivi des statuts
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statusScheduler.untrack(id);
+                suggestionIndex.remove(SuggestionIndex.EVENT, id);
+                invalidate(id);
+            }
+        });
+    }
+
+    // Après une écriture hors de ce service (import en masse...)
+    public void invalidateAll() {
+        eventCache.clear();
+        invalidate(null);
+        statusScheduler.reload();
+        suggestionIndex.rebuild();
+    }
+
+    // Transitions appliquées en base par EventStatusScheduler
+    @EventListener
+    public void onStatusChanged(EventsStatusChanged change) {
+        if (change.eventIds().isEmpty()) {
+            eventCache.clear();
+            invalidate(null);
+            return;
+        }
+        change.eventIds().forEach(eventCache::evict);
+        invalidate(null);
+        eventRepository.findAllById(change.eventIds())
+                .forEach(event -> liveScoreBroadcaster.publish(toLiveUpdate(event)));
+    }
+
+    // Le status saisi n'est conservé que pour les événements sans horaires
+    private static void applyScheduledStatus(Event event) {
+        String scheduled = event.statusAt(LocalDateTime.now());
+        if (scheduled != null) {
+            event.setStatus(scheduled);
+        }
+    }
+
+    // Une écriture touche un seul événement mais potentiellement toutes les listes
+    public void invalidate(Long eventId) {
+        if (eventId != null) {
+            eventCache.evict(eventId);
+        }
+        eventListCache.clear();
+        contentVersions.bump(ContentVersions.EVENTS);
+    }
+
+    public static LiveUpdateDTO toLiveUpdate(Event event) {
+        return LiveUpdateDTO.builder()
+                .eventId(event.getId())
+                .status(event.getStatus())
+                .live(event.isLive())
+                .liveData(LiveDataDTO.from(event.getLiveData()))
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+
+    public LiveUpdateDTO getLiveSnapshot(Long id) {
+        EventDTO event = getEventSnapshot(id).getEvent();
+        return LiveUpdateDTO.builder()
+                .eventId(event.getId())
+                .status(event.getStatus())
+                .live(event.isLive())
+                .liveData(event.getLiveData())
+                .updatedAt(event.getUpdatedAt())
+                .build();
+    }
+
+    private static EventDetailDTO toDetail(Event event) {
+        User organizer = event.getOrganizer();
+        UserSummaryDTO organizerSummary = null;
+        if (organizer != null) {
+            Profile profile = organizer.getProfile();
+            organizerSummary = new UserSummaryDTO(organizer.getId(),
+                    profile != null ? profile.getDisplayName() : null,
+                    profile != null ? profile.getPhotoUrl() : null);
+        }
+        return new EventDetailDTO(EventDTO.from(event), organizerSummary);
+    }
+
+    private static List<EventDTO> toDTOs(List<Event> events) {
+        return events.stream().map(EventDTO::from).toList();
+    }
+
+    private record Cursor(LocalDateTime date, Long id) {
+
+        static String encode(EventDTO last) {
+            String raw = last.getDate() + "|" + last.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Curseur de pagination invalide");
+            }
+        }
     }
 }
@@ -0,0 +1,153 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.model.Event;
+import sn.terangamatch.backeend.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Fait évoluer Event.status (À venir -> En cours -> Terminé) selon startDateTime / endDateTime.
+ * Les prochaines transitions sont gardées en mémoire, triées par date : chaque tick ne lit que
+ * la tête de l'index, et une échéance donne un seul update ensembliste par status cible.
+ * Les événements sans horaires ne sont pas concernés.
+ */
+@Slf4j
+@Component
+public class EventStatusScheduler {
+
+    private record Boundaries(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // échéance -> (événement -> status à appliquer) ; accès sous le verrou de l'instance
+    private final NavigableMap<LocalDateTime, Map<Long, String>> transitions = new TreeMap<>();
+    private final Map<Long, Boundaries> tracked = new HashMap<>();
+
+    public EventStatusScheduler(EventRepository eventRepository, ApplicationEventPublisher eventPublisher) {
+        this.eventRepository = eventRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        int caughtUp = eventRepository.markFinished(now) + eventRepository.markOngoing(now) + eventRepository.markUpcoming(now);
+        List<EventRepository.EventSchedule> schedules = eventRepository.findPendingSchedules(now);
+        synchronized (this) {
+            transitions.clear();
+            tracked.clear();
+            for (EventRepository.EventSchedule schedule : schedules) {
+                add(schedule.getId(), new Boundaries(schedule.getStartDateTime(), schedule.getEndDateTime()), now);
+            }
+        }
+        if (caughtUp > 0) {
+            log.info("Status recalculé pour {} événement(s)", caughtUp);
+            eventPublisher.publishEvent(new EventsStatusChanged(List.of(), null));
+        }
+    }
+
+    // À appeler après chaque création / modification des horaires d'un événement
+    public synchronized void track(Event event) {
+        remove(event.getId());
+        add(event.getId(), new Boundaries(event.getStartDateTime(), event.getEndDateTime()), LocalDateTime.now());
+    }
+
+    public synchronized void untrack(Long eventId) {
+        remove(eventId);
+    }
+
+    public synchronized int pendingTransitions() {
+        return transitions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.status.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<Long>> due = drainDue(now);
+        due.forEach((status, eventIds) -> {
+            int updated = eventRepository.updateStatus(eventIds, status, now);
+            if (updated > 0) {
+                eventPublisher.publishEvent(new EventsStatusChanged(List.copyOf(eventIds), status));
+            }
+        });
+    }
+
+    // Retire les échéances passées ; si plusieurs concernent un même événement, la dernière l'emporte
+    private synchronized Map<String, List<Long>> drainDue(LocalDateTime now) {
+        if (transitions.isEmpty() || transitions.firstKey().isAfter(now)) {
+            return Map.of();
+        }
+        Map<Long, String> finalStatus = new LinkedHashMap<>();
+        Iterator<Map.Entry<LocalDateTime, Map<Long, String>>> due = transitions.headMap(now, true).entrySet().iterator();
+        while (due.hasNext()) {
+            finalStatus.putAll(due.next().getValue());
+            due.remove();
+        }
+        Map<String, List<Long>> byStatus = new HashMap<>();
+        finalStatus.forEach((eventId, status) -> {
+            byStatus.computeIfAbsent(status, key -> new ArrayList<>()).add(eventId);
+            Boundaries boundaries = tracked.get(eventId);
+            if (boundaries != null && !isPending(boundaries, now)) {
+                tracked.remove(eventId);
+            }
+        });
+        return byStatus;
+    }
+
+    private void add(Long eventId, Boundaries boundaries, LocalDateTime now) {
+        if (eventId == null || boundaries.start() == null || !isPending(boundaries, now)) {
+            return;
+        }
+        tracked.put(eventId, boundaries);
+        if (boundaries.start().isAfter(now)) {
+            transitions.computeIfAbsent(boundaries.start(), key -> new HashMap<>()).put(eventId, Event.STATUS_ONGOING);
+        }
+        if (boundaries.end() != null && boundaries.end().isAfter(now)) {
+            transitions.computeIfAbsent(boundaries.end(), key -> new HashMap<>()).put(eventId, Event.STATUS_FINISHED);
+        }
+    }
+
+    private void remove(Long eventId) {
+        Boundaries boundaries = tracked.remove(eventId);
+        if (boundaries == null) {
+            return;
+        }
+        removeTransition(boundaries.start(), eventId);
+        removeTransition(boundaries.end(), eventId);
+    }
+
+    private void removeTransition(LocalDateTime at, Long eventId) {
+        if (at == null) {
+            return;
+        }
+        Map<Long, String> atBoundary = transitions.get(at);
+        if (atBoundary != null) {
+            atBoundary.remove(eventId);
+            if (atBoundary.isEmpty()) {
+                transitions.remove(at);
+            }
+        }
+    }
+
+    private static boolean isPending(Boundaries boundaries, LocalDateTime now) {
+        return (boundaries.start() != null && boundaries.start().isAfter(now))
+                || (boundaries.end() != null && boundaries.end().isAfter(now));
+    }
+}
@@ -0,0 +1,8 @@
+package sn.terangamatch.backeend.service;
+
+
+import java.util.List;
+
+// Publié par EventStatusScheduler après un update de status ; eventIds vide = rattrapage global
+public record EventsStatusChanged(List<Long> eventIds, String status) {
+}
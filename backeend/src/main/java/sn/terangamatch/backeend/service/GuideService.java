@@ -0,0 +1,165 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.terangamatch.backeend.dto.GuideDTO;
+import sn.terangamatch.backeend.dto.GuidePageDTO;
+import sn.terangamatch.backeend.dto.GuideRequest;
+import sn.terangamatch.backeend.dto.GuideSearchCriteria;
+import sn.terangamatch.backeend.dto.UserSummaryDTO;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.model.Guide;
+import sn.terangamatch.backeend.model.User;
+import sn.terangamatch.backeend.model.UserRole;
+import sn.terangamatch.backeend.repository.AgenceVoyageRepository;
+import sn.terangamatch.backeend.repository.GuideRepository;
+import sn.terangamatch.backeend.repository.UserRepository;
+import sn.terangamatch.backeend.search.GuideSearchIndex;
+import sn.terangamatch.backeend.search.GuideSearchIndex.GuideEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Les recherches sont servies par GuideSearchIndex ; la base n'est lue que pour les noms et photos de la page
+@Service
+@RequiredArgsConstructor
+public class GuideService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final GuideRepository guideRepository;
+    private final UserRepository userRepository;
+    private final AgenceVoyageRepository agenceVoyageRepository;
+    private final GuideSearchIndex guideSearchIndex;
+
+    public GuidePageDTO searchGuides(GuideSearchCriteria criteria, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        GuideEntry after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+        GuideSearchIndex.GuideHits result = guideSearchIndex.search(criteria, after, pageSize + 1);
+        List<GuideEntry> page = result.hits().size() > pageSize ? result.hits().subList(0, pageSize) : result.hits();
+        String nextCursor = result.hits().size() > pageSize ? Cursor.encode(page.get(pageSize - 1)) : null;
+        return new GuidePageDTO(toDTOs(page), result.total(), nextCursor);
+    }
+
+    public GuideDTO getGuide(Long id) {
+        GuideEntry entry = guideSearchIndex.get(id).orElseThrow(() -> new NotFoundException("Guide non trouvé"));
+        return toDTOs(List.of(entry)).get(0);
+    }
+
+    public Map<String, Integer> getSpecialties() {
+        return guideSearchIndex.getSpecialtyCounts();
+    }
+
+    // Profil guide de l'utilisateur connecté, créé au premier enregistrement
+    @Transactional
+    public GuideDTO saveMyProfile(Long userId, GuideRequest request) {
+        if (request.getHourlyRate() != null && request.getHourlyRate() < 0) {
+            throw new BadRequestException("Le tarif horaire ne peut pas être négatif");
+        }
+        Guide guide = guideRepository.findById(userId).orElseGet(() -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé"));
+            if (user.getRole() != UserRole.GUIDE) {
+                throw new BadRequestException("Seul un compte guide peut avoir un profil guide");
+            }
+            return Guide.builder().user(user).build();
+        });
+        guide.setSpecialties(request.getSpecialties() == null ? new ArrayList<>() : request.getSpecialties().stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new)));
+        guide.setHourlyRate(request.getHourlyRate());
+        guide.setAgenceVoyage(request.getAgenceVoyageId() == null ? null
+                : agenceVoyageRepository.findById(request.getAgenceVoyageId())
+                        .orElseThrow(() -> new NotFoundException("Agence de voyage non trouvée")));
+        return reindexAfterCommit(guideRepository.save(guide));
+    }
+
+    @Transactional
+    public GuideDTO setVerified(Long id, boolean verified) {
+        Guide guide = guideRepository.findById(id).orElseThrow(() -> new NotFoundException("Guide non trouvé"));
+        guide.setVerified(verified);
+        return reindexAfterCommit(guideRepository.save(guide));
+    }
+
+    @Transactional
+    public void deleteGuide(Long id) {
+        if (!guideRepository.existsById(id)) {
+            throw new NotFoundException("Guide non trouvé");
+        }
+        guideRepository.deleteById(id);
+        afterCommit(() -> guideSearchIndex.remove(id));
+    }
+
+    // Indexer avant le commit exposerait un guide qu'un rollback ferait disparaître
+    private GuideDTO reindexAfterCommit(Guide guide) {
+        // Note déjà indexée plutôt que celle lue avec le profil, peut-être dépassée
+        Double ratingAvg = guideSearchIndex.get(guide.getId()).map(GuideEntry::ratingAvg).orElse(guide.getRatingAvg());
+        GuideEntry entry = new GuideEntry(guide.getId(), guide.getSpecialties() == null ? List.of() : List.copyOf(guide.getSpecialties()), guide.getHourlyRate(),
+                ratingAvg, guide.isVerified(),
+                guide.getAgenceVoyage() != null ? guide.getAgenceVoyage().getId() : null);
+        afterCommit(() -> guideSearchIndex.index(entry));
+        return toDTOs(List.of(entry)).get(0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Une requête pour les noms et photos de toute la page
+    private List<GuideDTO> toDTOs(List<GuideEntry> entries) {
+        Map<Long, UserSummaryDTO> users = entries.isEmpty() ? Map.of()
+                : userRepository.findSummaries(entries.stream().map(GuideEntry::id).toList()).stream()
+                        .collect(Collectors.toMap(UserSummaryDTO::getId, Function.identity()));
+        return entries.stream()
+                .map(entry -> {
+                    UserSummaryDTO user = users.get(entry.id());
+                    return GuideDTO.builder()
+                            .id(entry.id())
+                            .displayName(user != null ? user.getDisplayName() : null)
+                            .photoUrl(user != null ? user.getPhotoUrl() : null)
+                            .specialties(entry.specialties())
+                            .hourlyRate(entry.hourlyRate())
+                            .ratingAvg(entry.ratingAvg())
+                            .verified(entry.verified())
+                            .agenceVoyageId(entry.agenceVoyageId())
+                            .build();
+                })
+                .toList();
+    }
+
+    // Position (note, id) du dernier guide de la page ; "-" pour un guide sans note
+    private static final class Cursor {
+
+        static String encode(GuideEntry last) {
+            String raw = (last.ratingAvg() != null ? last.ratingAvg().toString() : "-") + "|" + last.id();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static GuideEntry decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                Double rating = "-".equals(parts[0]) ? null : Double.valueOf(parts[0]);
+                return new GuideEntry(Long.valueOf(parts[1]), List.of(), null, rating, false, null);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Curseur de pagination invalide");
+            }
+        }
+    }
+}
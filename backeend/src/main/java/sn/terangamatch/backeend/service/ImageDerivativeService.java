@@ -0,0 +1,260 @@
+package sn.terangamatch.backeend.service;
+
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génère en arrière-plan des versions redimensionnées (JPEG) des images envoyées.
+ * L'original n'est jamais modifié ; tant qu'une variante n'existe pas, on sert l'original.
+ * Nom d'une variante : <nom original sans extension>@<variante>.jpg, dans le même dossier.
+ * Une fois des variantes écrites, ImageVariantsReady est publié : les réponses qui servaient
+ * l'original doivent changer d'ETag.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    public enum Variant {
+        THUMB(160),
+        CARD(480),
+        FULL(1280);
+
+        private final int maxWidth;
+
+        Variant(int maxWidth) {
+            this.maxWidth = maxWidth;
+        }
+
+        public int getMaxWidth() {
+            return maxWidth;
+        }
+
+        String suffix() {
+            return "@" + name().toLowerCase(Locale.ROOT) + ".jpg";
+        }
+    }
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private final UploadStorageService uploadStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    // Originaux déjà traités (ou en cours) depuis le démarrage
+    private final Set<String> processed = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(UploadStorageService uploadStorageService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.images.threads:2}") int threads,
+                                  @Value("${app.images.queue-capacity:200}") int queueCapacity,
+                                  @Value("${app.images.jpeg-quality:0.8}") float jpegQuality,
+                                  @Value("${app.images.max-pixels:40000000}") long maxPixels) {
+        this.uploadStorageService = uploadStorageService;
+        this.eventPublisher = eventPublisher;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Planifie la génération des variantes ; sans effet si déjà faite ou si la file est pleine
+    public void enqueue(String originalUrl) {
+        if (!isSupported(originalUrl) || !processed.add(originalUrl)) {
+            return;
+        }
+        try {
+            executor.execute(() -> generate(originalUrl));
+        } catch (RejectedExecutionException e) {
+            // File pleine : on réessaiera à la prochaine lecture de cette image
+            processed.remove(originalUrl);
+        }
+    }
+
+    // URL la plus adaptée à l'usage demandé : la variante si elle existe, sinon l'original
+    public String bestUrl(String originalUrl, Variant variant) {
+        Path original = uploadStorageService.resolve(originalUrl);
+        if (original == null || !isSupported(originalUrl)) {
+            return originalUrl;
+        }
+        if (Files.exists(variantPath(original, variant))) {
+            return variantUrl(originalUrl, variant);
+        }
+        enqueue(originalUrl);
+        return originalUrl;
+    }
+
+    public void deleteVariants(String originalUrl) {
+        Path original = uploadStorageService.resolve(originalUrl);
+        if (original == null) {
+            return;
+        }
+        processed.remove(originalUrl);
+        for (Variant variant : Variant.values()) {
+            try {
+                Files.deleteIfExists(variantPath(original, variant));
+            } catch (IOException e) {
+                log.warn("Impossible de supprimer la variante {} de {}", variant, originalUrl, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String originalUrl) {
+        Path original = uploadStorageService.resolve(originalUrl);
+        try {
+            if (original == null || !Files.exists(original)) {
+                return;
+            }
+            BufferedImage source = read(original);
+            if (source == null) {
+                return; // format non lisible par ImageIO, ou image trop grande
+            }
+            boolean written = false;
+            for (Variant variant : Variant.values()) {
+                Path target = variantPath(original, variant);
+                // Pas de variante plus grande que l'original : bestUrl renverra l'original
+                if (source.getWidth() > variant.getMaxWidth() && !Files.exists(target)) {
+                    writeJpeg(resize(source, variant.getMaxWidth()), target);
+                    written = true;
+                }
+            }
+            if (written) {
+                eventPublisher.publishEvent(new ImageVariantsReady(originalUrl));
+            }
+        } catch (IOException | RuntimeException e) {
+            processed.remove(originalUrl);
+            log.warn("Échec de la génération des variantes de {}", originalUrl, e);
+        }
+    }
+
+    // Dimensions lues dans l'en-tête avant tout décodage : un petit fichier peut déclarer 30000 x 30000 pixels
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Image {} ignorée : {} pixels (maximum {})", original.getFileName(), pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Réductions successives par moitié puis dernière étape bicubique : meilleure qualité qu'un seul saut
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // Fond blanc pour les PNG transparents (le JPEG n'a pas de canal alpha)
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path variantPath(Path original, Variant variant) {
+        return original.resolveSibling(stripExtension(original.getFileName().toString()) + variant.suffix());
+    }
+
+    private static String variantUrl(String originalUrl, Variant variant) {
+        int slash = originalUrl.lastIndexOf('/');
+        return originalUrl.substring(0, slash + 1) + stripExtension(originalUrl.substring(slash + 1)) + variant.suffix();
+    }
+
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static boolean isSupported(String url) {
+        if (url == null) {
+            return false;
+        }
+        int dot = url.lastIndexOf('.');
+        // Une variante n'est jamais elle-même redimensionnée
+        return dot > 0 && !url.contains("@")
+                && SUPPORTED_EXTENSIONS.contains(url.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,6 @@
+package sn.terangamatch.backeend.service;
+
+
+// Publié par ImageDerivativeService quand au moins une variante de l'image vient d'être écrite
+public record ImageVariantsReady(String originalUrl) {
+}
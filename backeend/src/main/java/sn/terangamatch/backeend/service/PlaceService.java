@@ -0,0 +1,216 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import sn.terangamatch.backeend.cache.ContentVersions;
+import sn.terangamatch.backeend.dto.ClusterTileDTO;
+import sn.terangamatch.backeend.dto.PlaceDTO;
+import sn.terangamatch.backeend.dto.PlacePageDTO;
+import sn.terangamatch.backeend.dto.RatingSummaryDTO;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.geo.PlaceClusterIndex;
+import sn.terangamatch.backeend.geo.PlaceGeoIndex;
+import sn.terangamatch.backeend.model.Place;
+import sn.terangamatch.backeend.model.PlaceType;
+import sn.terangamatch.backeend.model.RatingTargetType;
+import sn.terangamatch.backeend.repository.PlaceRepository;
+import sn.terangamatch.backeend.search.SuggestionIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PlaceService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    // Au-delà, une recherche par rayon équivaut à tout parcourir
+    private static final double MAX_RADIUS_METERS = 100_000;
+    // Tuiles renvoyées au plus par une requête de zone de carte
+    private static final int MAX_VIEWPORT_TILES = 64;
+
+    private final PlaceRepository placeRepository;
+    private final PlaceGeoIndex placeGeoIndex;
+    private final PlaceClusterIndex placeClusterIndex;
+    private final ContentVersions contentVersions;
+    private final SuggestionIndex suggestionIndex;
+    private final RatingService ratingService;
+
+    public List<PlaceDTO> getPlaces(PlaceType type) {
+        List<Place> places = type != null ? placeRepository.findByType(type) : placeRepository.findAll();
+        return withRatings(places.stream().map(PlaceDTO::from).toList());
+    }
+
+    // Classement servi par l'index de rating_aggregates
+    public List<PlaceDTO> getTopRated(int minCount, int limit) {
+        List<Long> ids = ratingService.getTopRated(RatingTargetType.PLACE, minCount, pageSize(limit)).stream()
+                .map(RatingSummaryDTO::getTargetId)
+                .toList();
+        Map<Long, Place> places = placeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+        return withRatings(ids.stream()
+                .filter(places::containsKey)
+                .map(id -> PlaceDTO.from(places.get(id)))
+                .toList());
+    }
+
+    public PlaceDTO getPlace(Long id) {
+        return PlaceDTO.from(getPlaceById(id));
+    }
+
+    public PlaceDTO createPlace(Place place) {
+        validateCoordinates(place.getLatitude(), place.getLongitude());
+        Place saved = placeRepository.save(place);
+        reindex(saved);
+        return PlaceDTO.from(saved);
+    }
+
+    public PlaceDTO updatePlace(Long id, Place updated) {
+        validateCoordinates(updated.getLatitude(), updated.getLongitude());
+        Place place = getPlaceById(id);
+        place.setName(updated.getName());
+        place.setDescription(updated.getDescription());
+        place.setType(updated.getType());
+        place.setAddress(updated.getAddress());
+        place.setLatitude(updated.getLatitude());
+        place.setLongitude(updated.getLongitude());
+        place.setOpeningHours(updated.getOpeningHours());
+        Place saved = placeRepository.save(place);
+        reindex(saved);
+        return PlaceDTO.from(saved);
+    }
+
+    public void deletePlace(Long id) {
+        placeRepository.deleteById(id);
+        placeGeoIndex.remove(id);
+        placeClusterIndex.remove(id);
+        suggestionIndex.remove(SuggestionIndex.PLACE, id);
+        contentVersions.bump(ContentVersions.PLACES);
+    }
+
+    // Après une écriture hors de ce service (import en masse...)
+    public void reindexAll() {
+        placeGeoIndex.rebuild();
+        placeClusterIndex.rebuild();
+        suggestionIndex.rebuild();
+        contentVersions.bump(ContentVersions.PLACES);
+    }
+
+    public String getPlacesEtag() {
+        return contentVersions.collectionEtag(ContentVersions.PLACES);
+    }
+
+    public ClusterTileDTO getClusterTile(int zoom, int x, int y) {
+        return placeClusterIndex.tile(zoom, x, y);
+    }
+
+    // Zone visible de la carte : les tuiles qui la couvrent, pour un rendu sans regroupement côté client
+    public List<ClusterTileDTO> getClusters(double minLatitude, double minLongitude,
+                                            double maxLatitude, double maxLongitude, int zoom) {
+        validateCoordinates(minLatitude, minLongitude);
+        validateCoordinates(maxLatitude, maxLongitude);
+        if (zoom < 0 || zoom > PlaceClusterIndex.MAX_REQUEST_ZOOM) {
+            throw new BadRequestException("Zoom invalide (0 à " + PlaceClusterIndex.MAX_REQUEST_ZOOM + ")");
+        }
+        List<int[]> tiles = placeClusterIndex.tilesCovering(minLatitude, minLongitude, maxLatitude, maxLongitude, zoom);
+        if (tiles.size() > MAX_VIEWPORT_TILES) {
+            throw new BadRequestException("Zone trop étendue pour ce niveau de zoom");
+        }
+        return tiles.stream().map(tile -> placeClusterIndex.tile(zoom, tile[0], tile[1])).toList();
+    }
+
+    public PlacePageDTO findNearby(double latitude, double longitude, double radiusMeters, PlaceType type,
+                                   String cursor, int limit) {
+        validateCoordinates(latitude, longitude);
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            throw new BadRequestException("Rayon invalide (1 à " + (int) MAX_RADIUS_METERS + " m)");
+        }
+        int pageSize = pageSize(limit);
+        int offset = offset(cursor);
+        return toPage(placeGeoIndex.withinRadius(latitude, longitude, radiusMeters, type, offset, pageSize), offset, pageSize);
+    }
+
+    public PlacePageDTO findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                      PlaceType type, String cursor, int limit) {
+        validateCoordinates(minLatitude, minLongitude);
+        validateCoordinates(maxLatitude, maxLongitude);
+        int pageSize = pageSize(limit);
+        int offset = offset(cursor);
+        return toPage(placeGeoIndex.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, type, offset, pageSize),
+                offset, pageSize);
+    }
+
+    public List<PlaceDTO> findNearest(double latitude, double longitude, int k, PlaceType type) {
+        validateCoordinates(latitude, longitude);
+        return load(placeGeoIndex.nearest(latitude, longitude, pageSize(k), type));
+    }
+
+    private void reindex(Place place) {
+        placeGeoIndex.index(place);
+        placeClusterIndex.index(place);
+        suggestionIndex.indexPlace(place);
+        contentVersions.bump(ContentVersions.PLACES);
+    }
+
+    private Place getPlaceById(Long id) {
+        return placeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Lieu non trouvé"));
+    }
+
+    private PlacePageDTO toPage(PlaceGeoIndex.GeoHits hits, int offset, int pageSize) {
+        String nextCursor = offset + pageSize < hits.total() ? String.valueOf(offset + pageSize) : null;
+        return new PlacePageDTO(load(hits.hits()), hits.total(), nextCursor);
+    }
+
+    // Une seule requête pour la page, dans l'ordre des distances
+    private List<PlaceDTO> load(List<PlaceGeoIndex.GeoHit> hits) {
+        Map<Long, Place> places = placeRepository.findAllById(hits.stream().map(PlaceGeoIndex.GeoHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+        return withRatings(hits.stream()
+                .filter(hit -> places.containsKey(hit.id()))
+                .map(hit -> PlaceDTO.from(places.get(hit.id())).withDistanceMeters(Math.round(hit.distanceMeters() * 10) / 10.0))
+                .toList());
+    }
+
+    // Une requête sur rating_aggregates pour toute la page, jamais sur reviews
+    private List<PlaceDTO> withRatings(List<PlaceDTO> page) {
+        Map<Long, RatingSummaryDTO> ratings = ratingService.getSummaries(RatingTargetType.PLACE,
+                page.stream().map(PlaceDTO::getId).toList());
+        return page.stream()
+                .map(dto -> {
+                    RatingSummaryDTO rating = ratings.get(dto.getId());
+                    return rating == null ? dto.withRatingCount(0)
+                            : dto.withRatingAvg(rating.getAverage()).withRatingCount(rating.getCount());
+                })
+                .toList();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static int offset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+
+    private static void validateCoordinates(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return;
+        }
+        if (latitude == null || longitude == null
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Coordonnées invalides");
+        }
+    }
+}
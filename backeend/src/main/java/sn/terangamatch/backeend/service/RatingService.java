@@ -0,0 +1,181 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.terangamatch.backeend.dto.RatingSummaryDTO;
+import sn.terangamatch.backeend.model.RatingTarget;
+import sn.terangamatch.backeend.model.RatingTargetType;
+import sn.terangamatch.backeend.repository.RatingAggregateRepository;
+import sn.terangamatch.backeend.search.GuideSearchIndex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agrégats de notes par cible (nombre, somme, histogramme 1 à 5 étoiles, moyenne).
+ * Chaque avis créé, modifié ou supprimé applique un delta par un seul upsert atomique, sans
+ * relire les avis. Postgres garde le verrou de la ligne d'agrégat jusqu'au commit de la
+ * transaction de l'avis : les écritures sur une même cible sont sérialisées sur cette durée.
+ * Une réconciliation ensembliste recalcule tout depuis reviews pour corriger une dérive.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingService {
+
+    private static final Map<RatingTargetType, String> REVIEW_COLUMNS = Map.of(
+            RatingTargetType.GUIDE, "guide_id",
+            RatingTargetType.PLACE, "place_id",
+            RatingTargetType.EVENT, "event_id"
+    );
+
+    private static final String UPSERT_SQL = "insert into rating_aggregates "
+            + "(target_type, target_id, review_count, rating_sum, star1, star2, star3, star4, star5, rating_avg, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now()) "
+            + "on conflict (target_type, target_id) do update set "
+            + "review_count = rating_aggregates.review_count + excluded.review_count, "
+            + "rating_sum = rating_aggregates.rating_sum + excluded.rating_sum, "
+            + "star1 = rating_aggregates.star1 + excluded.star1, "
+            + "star2 = rating_aggregates.star2 + excluded.star2, "
+            + "star3 = rating_aggregates.star3 + excluded.star3, "
+            + "star4 = rating_aggregates.star4 + excluded.star4, "
+            + "star5 = rating_aggregates.star5 + excluded.star5, "
+            + "rating_avg = case when rating_aggregates.review_count + excluded.review_count > 0 "
+            + "then (rating_aggregates.rating_sum + excluded.rating_sum)::float8 "
+            + "/ (rating_aggregates.review_count + excluded.review_count) end, "
+            + "updated_at = now()";
+
+    private static final String GUIDE_SYNC_SQL = "update guides set rating_avg = "
+            + "(select rating_avg from rating_aggregates where target_type = 'GUIDE' and target_id = ?) where id = ? "
+            + "returning rating_avg";
+
+    private static final String GUIDES_RECONCILE_SQL = "update guides g set rating_avg = a.rating_avg "
+            + "from rating_aggregates a where a.target_type = 'GUIDE' and a.target_id = g.id "
+            + "and g.rating_avg is distinct from a.rating_avg";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final GuideSearchIndex guideSearchIndex;
+
+    public void recordAdded(RatingTargetType type, Long targetId, int rating) {
+        int[] stars = new int[5];
+        stars[rating - 1] = 1;
+        apply(type, targetId, 1, rating, stars);
+    }
+
+    public void recordRemoved(RatingTargetType type, Long targetId, int rating) {
+        int[] stars = new int[5];
+        stars[rating - 1] = -1;
+        apply(type, targetId, -1, -rating, stars);
+    }
+
+    public void recordChanged(RatingTargetType type, Long targetId, int previousRating, int rating) {
+        if (previousRating == rating) {
+            return;
+        }
+        int[] stars = new int[5];
+        stars[previousRating - 1] = -1;
+        stars[rating - 1] = 1;
+        apply(type, targetId, 0, rating - previousRating, stars);
+    }
+
+    public RatingSummaryDTO getSummary(RatingTargetType type, Long targetId) {
+        return ratingAggregateRepository.findById(new RatingTarget(type, targetId))
+                .map(RatingSummaryDTO::from)
+                .orElseGet(() -> RatingSummaryDTO.empty(type, targetId));
+    }
+
+    // Pour enrichir une page de liste en une requête
+    public Map<Long, RatingSummaryDTO> getSummaries(RatingTargetType type, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Map.of();
+        }
+        return ratingAggregateRepository.findByTargets(type, targetIds).stream()
+                .map(RatingSummaryDTO::from)
+                .collect(Collectors.toMap(RatingSummaryDTO::getTargetId, Function.identity()));
+    }
+
+    public List<RatingSummaryDTO> getTopRated(RatingTargetType type, int minCount, int limit) {
+        return ratingAggregateRepository.findTopRated(type, Math.max(1, minCount), PageRequest.of(0, limit)).stream()
+                .map(RatingSummaryDTO::from)
+                .toList();
+    }
+
+    // Au démarrage (initialise les agrégats des avis existants) puis chaque nuit
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.ratings.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        int repaired = 0;
+        for (Map.Entry<RatingTargetType, String> entry : REVIEW_COLUMNS.entrySet()) {
+            repaired += jdbcTemplate.update(reconcileSql(entry.getKey(), entry.getValue()));
+            repaired += jdbcTemplate.update(resetOrphansSql(entry.getKey(), entry.getValue()));
+        }
+        int guides = jdbcTemplate.update(GUIDES_RECONCILE_SQL);
+        if (repaired > 0 || guides > 0) {
+            log.info("Réconciliation des notes : {} agrégat(s) et {} guide(s) corrigés", repaired, guides);
+        }
+        if (guides > 0) {
+            guideSearchIndex.rebuild();
+        }
+    }
+
+    private void apply(RatingTargetType type, Long targetId, int countDelta, int sumDelta, int[] stars) {
+        Double average = countDelta > 0 ? (double) sumDelta / countDelta : null;
+        jdbcTemplate.update(UPSERT_SQL, type.name(), targetId, countDelta, sumDelta,
+                stars[0], stars[1], stars[2], stars[3], stars[4], average);
+        if (type == RatingTargetType.GUIDE) {
+            List<Double> ratingAvg = jdbcTemplate.query(GUIDE_SYNC_SQL,
+                    (rs, rowNum) -> rs.getObject(1, Double.class), targetId, targetId);
+            if (!ratingAvg.isEmpty()) {
+                // Après le commit : un rollback ne doit pas laisser la nouvelle note dans l'index
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        guideSearchIndex.updateRating(targetId, ratingAvg.get(0));
+                    }
+                });
+            }
+        }
+    }
+
+    // Recalcul depuis reviews ; seules les lignes réellement différentes sont réécrites
+    private static String reconcileSql(RatingTargetType type, String column) {
+        return "insert into rating_aggregates "
+                + "(target_type, target_id, review_count, rating_sum, star1, star2, star3, star4, star5, rating_avg, updated_at) "
+                + "select '" + type.name() + "', r." + column + ", count(*), sum(r.rating), "
+                + "count(*) filter (where r.rating = 1), count(*) filter (where r.rating = 2), "
+                + "count(*) filter (where r.rating = 3), count(*) filter (where r.rating = 4), "
+                + "count(*) filter (where r.rating = 5), avg(r.rating), now() "
+                + "from reviews r where r." + column + " is not null and r.rating between 1 and 5 "
+                + "group by r." + column + " "
+                + "on conflict (target_type, target_id) do update set "
+                + "review_count = excluded.review_count, rating_sum = excluded.rating_sum, "
+                + "star1 = excluded.star1, star2 = excluded.star2, star3 = excluded.star3, "
+                + "star4 = excluded.star4, star5 = excluded.star5, rating_avg = excluded.rating_avg, updated_at = now() "
+                + "where (rating_aggregates.review_count, rating_aggregates.rating_sum, rating_aggregates.star1, "
+                + "rating_aggregates.star2, rating_aggregates.star3, rating_aggregates.star4, rating_aggregates.star5) "
+                + "is distinct from (excluded.review_count, excluded.rating_sum, excluded.star1, "
+                + "excluded.star2, excluded.star3, excluded.star4, excluded.star5)";
+    }
+
+    // Cibles dont tous les avis ont disparu
+    private static String resetOrphansSql(RatingTargetType type, String column) {
+        return "update rating_aggregates a set review_count = 0, rating_sum = 0, "
+                + "star1 = 0, star2 = 0, star3 = 0, star4 = 0, star5 = 0, rating_avg = null, updated_at = now() "
+                + "where a.target_type = '" + type.name() + "' and a.review_count <> 0 "
+                + "and not exists (select 1 from reviews r where r." + column + " = a.target_id "
+                + "and r.rating between 1 and 5)";
+    }
+}
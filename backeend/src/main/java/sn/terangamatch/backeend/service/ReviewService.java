@@ -0,0 +1,137 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.terangamatch.backeend.dto.ReviewDTO;
+import sn.terangamatch.backeend.dto.ReviewPageDTO;
+import sn.terangamatch.backeend.dto.ReviewRequest;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.model.RatingTargetType;
+import sn.terangamatch.backeend.model.Review;
+import sn.terangamatch.backeend.repository.EventRepository;
+import sn.terangamatch.backeend.repository.GuideRepository;
+import sn.terangamatch.backeend.repository.PlaceRepository;
+import sn.terangamatch.backeend.repository.ReviewRepository;
+import sn.terangamatch.backeend.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Chaque écriture d'avis applique son delta à rating_aggregates dans la même transaction
+@Service
+@RequiredArgsConstructor
+public class ReviewService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final GuideRepository guideRepository;
+    private final PlaceRepository placeRepository;
+    private final EventRepository eventRepository;
+    private final RatingService ratingService;
+
+    @Transactional
+    public ReviewDTO createReview(Long authorId, ReviewRequest request) {
+        int rating = checkRating(request.getRating());
+        if (request.getTargetType() == null || request.getTargetId() == null) {
+            throw new BadRequestException("La cible de l'avis est obligatoire");
+        }
+        Review review = Review.builder()
+                .rating(rating)
+                .comment(request.getComment())
+                .createdAt(LocalDateTime.now())
+                .author(userRepository.findById(authorId)
+                        .orElseThrow(() -> new NotFoundException("Utilisateur non trouvé")))
+                .build();
+        Long targetId = request.getTargetId();
+        switch (request.getTargetType()) {
+            case GUIDE -> review.setGuide(guideRepository.findById(targetId)
+                    .orElseThrow(() -> new NotFoundException("Guide non trouvé")));
+            case PLACE -> review.setPlace(placeRepository.findById(targetId)
+                    .orElseThrow(() -> new NotFoundException("Lieu non trouvé")));
+            case EVENT -> review.setEvent(eventRepository.findById(targetId)
+                    .orElseThrow(() -> new NotFoundException("Événement non trouvé")));
+        }
+        Review saved = reviewRepository.save(review);
+        ratingService.recordAdded(request.getTargetType(), targetId, rating);
+        return ReviewDTO.from(saved);
+    }
+
+    // La cible d'un avis ne change pas ; seuls la note et le commentaire sont modifiables
+    @Transactional
+    public ReviewDTO updateReview(Long reviewId, Long userId, boolean admin, ReviewRequest request) {
+        Review review = findEditable(reviewId, userId, admin);
+        if (request.getRating() != null) {
+            int rating = checkRating(request.getRating());
+            ReviewDTO target = ReviewDTO.from(review);
+            if (target.getTargetType() != null) {
+                if (validRating(review.getRating())) {
+                    ratingService.recordChanged(target.getTargetType(), target.getTargetId(), review.getRating(), rating);
+                } else {
+                    ratingService.recordAdded(target.getTargetType(), target.getTargetId(), rating);
+                }
+            }
+            review.setRating(rating);
+        }
+        if (request.getComment() != null) {
+            review.setComment(request.getComment());
+        }
+        return ReviewDTO.from(reviewRepository.save(review));
+    }
+
+    @Transactional
+    public void deleteReview(Long reviewId, Long userId, boolean admin) {
+        Review review = findEditable(reviewId, userId, admin);
+        ReviewDTO target = ReviewDTO.from(review);
+        reviewRepository.delete(review);
+        if (target.getTargetType() != null && validRating(review.getRating())) {
+            ratingService.recordRemoved(target.getTargetType(), target.getTargetId(), review.getRating());
+        }
+    }
+
+    public ReviewPageDTO getReviews(RatingTargetType type, Long targetId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long beforeId;
+        try {
+            beforeId = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Review> rows = switch (type) {
+            case GUIDE -> reviewRepository.findByGuide_IdAndIdLessThanOrderByIdDesc(targetId, beforeId, page);
+            case PLACE -> reviewRepository.findByPlace_IdAndIdLessThanOrderByIdDesc(targetId, beforeId, page);
+            case EVENT -> reviewRepository.findByEvent_IdAndIdLessThanOrderByIdDesc(targetId, beforeId, page);
+        };
+        List<ReviewDTO> items = rows.stream().limit(pageSize).map(ReviewDTO::from).toList();
+        String nextCursor = rows.size() > pageSize ? String.valueOf(items.get(pageSize - 1).getId()) : null;
+        return new ReviewPageDTO(items, nextCursor);
+    }
+
+    private Review findEditable(Long reviewId, Long userId, boolean admin) {
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new NotFoundException("Avis non trouvé"));
+        if (!admin && (review.getAuthor() == null || !review.getAuthor().getId().equals(userId))) {
+            throw new AccessDeniedException("Seul l'auteur peut modifier cet avis");
+        }
+        return review;
+    }
+
+    private static int checkRating(Integer rating) {
+        if (!validRating(rating)) {
+            throw new BadRequestException("La note doit être comprise entre 1 et 5");
+        }
+        return rating;
+    }
+
+    // Les anciens avis hors bornes n'ont jamais été comptés dans les agrégats
+    private static boolean validRating(Integer rating) {
+        return rating != null && rating >= 1 && rating <= 5;
+    }
+}
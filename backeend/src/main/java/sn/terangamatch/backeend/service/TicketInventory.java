@@ -0,0 +1,218 @@
+package sn.terangamatch.backeend.service;
+
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.repository.TicketTypeRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Places disponibles par type de billet, en mémoire. Chaque stock est réparti sur plusieurs
+ * compteurs atomiques : une vente flash se répartit sur les compteurs au lieu de se disputer
+ * une seule ligne en base, et chaque décrément vérifie le solde, d'où aucune survente.
+ * La base reste la référence : au démarrage, le disponible est recalculé à partir des billets
+ * confirmés ou bloqués (même expirés, le balayage des réservations les rendra) ;
+ * ticket_types.reserved n'est qu'une copie différée.
+ */
+@Slf4j
+@Component
+public class TicketInventory {
+
+    private static final String UPDATE_SQL = "update ticket_types set reserved = ? where id = ?";
+
+    private final TicketTypeRepository ticketTypeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int stripeCount;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+    // Types dont le compteur reserved doit être recopié en base
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public TicketInventory(TicketTypeRepository ticketTypeRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${app.tickets.stripes:8}") int stripeCount) {
+        this.ticketTypeRepository = ticketTypeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripeCount = stripeCount;
+    }
+
+    @PostConstruct
+    void load() {
+        ticketTypeRepository.findInventory().forEach(row -> {
+            int available = (int) Math.max(0, row.getQuantity() - row.getCommitted());
+            stocks.put(row.getId(), new Stock(row.getQuantity(), available, stripeCount));
+            dirty.add(row.getId());
+        });
+    }
+
+    public void register(Long ticketTypeId, int quantity) {
+        stocks.put(ticketTypeId, new Stock(quantity, quantity, stripeCount));
+    }
+
+    // Types supprimés avec leur événement
+    public void unregister(Collection<Long> ticketTypeIds) {
+        ticketTypeIds.forEach(ticketTypeId -> {
+            stocks.remove(ticketTypeId);
+            dirty.remove(ticketTypeId);
+        });
+    }
+
+    public boolean tryAcquire(Long ticketTypeId, int quantity) {
+        boolean acquired = stock(ticketTypeId).tryAcquire(quantity);
+        if (acquired) {
+            dirty.add(ticketTypeId);
+        }
+        return acquired;
+    }
+
+    public void release(Long ticketTypeId, int quantity) {
+        Stock stock = stocks.get(ticketTypeId);
+        if (stock != null) {
+            stock.release(quantity);
+            dirty.add(ticketTypeId);
+        }
+    }
+
+    // Nouveau contingent ; false si des places déjà engagées l'empêchent
+    public boolean resize(Long ticketTypeId, int quantity) {
+        Stock stock = stock(ticketTypeId);
+        synchronized (stock) {
+            int delta = quantity - stock.capacity;
+            if (delta < 0 && !stock.tryAcquire(-delta)) {
+                return false;
+            }
+            if (delta > 0) {
+                stock.release(delta);
+            }
+            stock.capacity = quantity;
+        }
+        dirty.add(ticketTypeId);
+        return true;
+    }
+
+    public int available(Long ticketTypeId) {
+        Stock stock = stocks.get(ticketTypeId);
+        return stock != null ? stock.available() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.tickets.flush-interval-ms:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<long[]> batch = new ArrayList<>();
+        for (Long ticketTypeId : dirty) {
+            dirty.remove(ticketTypeId);
+            Stock stock = stocks.get(ticketTypeId);
+            if (stock != null) {
+                batch.add(new long[]{stock.capacity - stock.available(), ticketTypeId});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, row) -> {
+                ps.setInt(1, (int) Math.max(0, row[0]));
+                ps.setLong(2, row[1]);
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(row -> dirty.add(row[1]));
+            log.warn("Échec de l'écriture des compteurs de billets ({} types)", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private Stock stock(Long ticketTypeId) {
+        Stock stock = stocks.get(ticketTypeId);
+        if (stock == null) {
+            throw new NotFoundException("Type de billet non trouvé");
+        }
+        return stock;
+    }
+
+    private static final class Stock {
+
+        private final AtomicInteger[] stripes;
+        private volatile int capacity;
+
+        Stock(int capacity, int available, int stripeCount) {
+            this.capacity = capacity;
+            this.stripes = new AtomicInteger[Math.max(1, stripeCount)];
+            for (int i = 0; i < stripes.length; i++) {
+                int share = available / stripes.length + (i < available % stripes.length ? 1 : 0);
+                stripes[i] = new AtomicInteger(share);
+            }
+        }
+
+        int available() {
+            int total = 0;
+            for (AtomicInteger stripe : stripes) {
+                total += stripe.get();
+            }
+            return total;
+        }
+
+        boolean tryAcquire(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripes.length);
+            // Cas courant : un seul compteur suffit
+            if (take(stripes[start], quantity, true) == quantity) {
+                return true;
+            }
+            // Sinon on rassemble sur plusieurs compteurs, et on rend tout en cas d'échec
+            int[] taken = new int[stripes.length];
+            int total = 0;
+            for (int i = 0; i < stripes.length && total < quantity; i++) {
+                int index = (start + i) % stripes.length;
+                int got = take(stripes[index], quantity - total, false);
+                taken[index] += got;
+                total += got;
+            }
+            if (total == quantity) {
+                return true;
+            }
+            for (int i = 0; i < stripes.length; i++) {
+                if (taken[i] > 0) {
+                    stripes[i].addAndGet(taken[i]);
+                }
+            }
+            return false;
+        }
+
+        void release(int quantity) {
+            stripes[ThreadLocalRandom.current().nextInt(stripes.length)].addAndGet(quantity);
+        }
+
+        // Décrément borné à zéro ; exact = tout ou rien
+        private static int take(AtomicInteger stripe, int wanted, boolean exact) {
+            while (true) {
+                int current = stripe.get();
+                int amount = exact ? wanted : Math.min(current, wanted);
+                if (amount <= 0 || current < amount) {
+                    return 0;
+                }
+                if (stripe.compareAndSet(current, current - amount)) {
+                    return amount;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.terangamatch.backeend.dto.TicketDTO;
+import sn.terangamatch.backeend.dto.TicketTypeDTO;
+import sn.terangamatch.backeend.dto.TicketTypeRequest;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.exception.ConflictException;
+import sn.terangamatch.backeend.exception.NotFoundException;
+import sn.terangamatch.backeend.model.Ticket;
+import sn.terangamatch.backeend.model.TicketStatus;
+import sn.terangamatch.backeend.model.TicketType;
+import sn.terangamatch.backeend.repository.EventRepository;
+import sn.terangamatch.backeend.repository.TicketRepository;
+import sn.terangamatch.backeend.repository.TicketTypeRepository;
+import sn.terangamatch.backeend.repository.UserRepository;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Billetterie : blocage temporaire de places, confirmation, annulation.
+ * Les places sont prises dans TicketInventory avant toute écriture ; la réservation n'est
+ * ensuite qu'une insertion de ligne, sans verrou partagé entre acheteurs.
+ */
+@Slf4j
+@Service
+public class TicketService {
+
+    // Crockford base32 : pas de I, L, O, U (lecture à voix haute, saisie au guichet)
+    private static final char[] CODE_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int CODE_LENGTH = 12;
+
+    private static final String EXPIRE_SQL = "update tickets set status = 'EXPIRED' "
+            + "where status = 'HELD' and hold_expires_at <= ? returning ticket_type_id, quantity";
+
+    private final TicketRepository ticketRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final TicketInventory inventory;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration holdDuration;
+    private final int maxPerOrder;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public TicketService(TicketRepository ticketRepository,
+                         TicketTypeRepository ticketTypeRepository,
+                         EventRepository eventRepository,
+                         UserRepository userRepository,
+                         TicketInventory inventory,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${app.tickets.hold-duration:10m}") Duration holdDuration,
+                         @Value("${app.tickets.max-per-order:6}") int maxPerOrder) {
+        this.ticketRepository = ticketRepository;
+        this.ticketTypeRepository = ticketTypeRepository;
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.inventory = inventory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.holdDuration = holdDuration;
+        this.maxPerOrder = maxPerOrder;
+    }
+
+    public List<TicketTypeDTO> getTicketTypes(Long eventId) {
+        return ticketTypeRepository.findByEventIdOrderById(eventId).stream()
+                .map(ticketType -> TicketTypeDTO.from(ticketType, inventory.available(ticketType.getId())))
+                .toList();
+    }
+
+    public TicketTypeDTO createTicketType(TicketTypeRequest request) {
+        if (request.getName() == null || request.getName().isBlank() || request.getQuantity() < 0) {
+            throw new BadRequestException("Nom et quantité du type de billet requis");
+        }
+        TicketType ticketType = TicketType.builder()
+                .event(eventRepository.findById(request.getEventId())
+                        .orElseThrow(() -> new NotFoundException("Événement non trouvé")))
+                .name(request.getName().trim())
+                .price(request.getPrice())
+                .quantity(request.getQuantity())
+                .build();
+        TicketType saved = ticketTypeRepository.save(ticketType);
+        inventory.register(saved.getId(), saved.getQuantity());
+        return TicketTypeDTO.from(saved, saved.getQuantity());
+    }
+
+    public TicketTypeDTO updateQuantity(Long ticketTypeId, int quantity) {
+        if (quantity < 0) {
+            throw new BadRequestException("Quantité invalide");
+        }
+        TicketType ticketType = ticketTypeRepository.findById(ticketTypeId)
+                .orElseThrow(() -> new NotFoundException("Type de billet non trouvé"));
+        int previous = ticketType.getQuantity();
+        if (!inventory.resize(ticketTypeId, quantity)) {
+            throw new ConflictException("Des places déjà réservées dépassent ce contingent");
+        }
+        ticketType.setQuantity(quantity);
+        try {
+            ticketTypeRepository.save(ticketType);
+        } catch (RuntimeException e) {
+            inventory.resize(ticketTypeId, previous);
+            throw e;
+        }
+        return TicketTypeDTO.from(ticketType, inventory.available(ticketTypeId));
+    }
+
+    // Appelé à la suppression d'un événement : refusée si des billets ont été vendus
+    @Transactional
+    public void deleteForEvent(Long eventId) {
+        List<Long> ticketTypeIds = ticketTypeRepository.findByEventIdOrderById(eventId).stream()
+                .map(TicketType::getId)
+                .toList();
+        if (ticketTypeIds.isEmpty()) {
+            return;
+        }
+        // Les billets confirmés entre-temps ne sont pas supprimés et bloquent la suite
+        ticketRepository.deleteUnsoldByEventId(eventId);
+        if (ticketRepository.existsByEventId(eventId)) {
+            throw new ConflictException("Des billets ont été vendus pour cet événement");
+        }
+        ticketTypeRepository.deleteByEventId(eventId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                inventory.unregister(ticketTypeIds);
+            }
+        });
+    }
+
+    public TicketDTO hold(Long userId, Long ticketTypeId, int quantity) {
+        if (quantity < 1 || quantity > maxPerOrder) {
+            throw new BadRequestException("Entre 1 et " + maxPerOrder + " billets par commande");
+        }
+        if (!inventory.tryAcquire(ticketTypeId, quantity)) {
+            throw new ConflictException("Plus assez de places disponibles");
+        }
+        try {
+            Ticket ticket = Ticket.builder()
+                    .code(newCode())
+                    .ticketType(ticketTypeRepository.getReferenceById(ticketTypeId))
+                    .user(userRepository.getReferenceById(userId))
+                    .quantity(quantity)
+                    .status(TicketStatus.HELD)
+                    .holdExpiresAt(LocalDateTime.now().plus(holdDuration))
+                    .build();
+            Long id = ticketRepository.save(ticket).getId();
+            return getTicket(id, userId);
+        } catch (RuntimeException e) {
+            inventory.release(ticketTypeId, quantity);
+            throw e;
+        }
+    }
+
+    public TicketDTO confirm(Long ticketId, Long userId) {
+        if (ticketRepository.confirm(ticketId, userId, LocalDateTime.now()) == 0) {
+            Ticket ticket = findOwned(ticketId, userId);
+            if (ticket.getStatus() != TicketStatus.CONFIRMED) {
+                throw new ConflictException("Réservation expirée ou annulée");
+            }
+        }
+        return getTicket(ticketId, userId);
+    }
+
+    public TicketDTO cancel(Long ticketId, Long userId) {
+        Ticket ticket = findOwned(ticketId, userId);
+        TicketStatus status = ticket.getStatus();
+        if ((status == TicketStatus.HELD || status == TicketStatus.CONFIRMED)
+                && ticketRepository.cancel(ticketId, status) == 1) {
+            inventory.release(ticket.getTicketType().getId(), ticket.getQuantity());
+        }
+        return getTicket(ticketId, userId);
+    }
+
+    public List<TicketDTO> getMyTickets(Long userId) {
+        return ticketRepository.findByUserIdWithEvent(userId).stream().map(TicketDTO::from).toList();
+    }
+
+    public TicketDTO getTicket(Long ticketId, Long userId) {
+        return TicketDTO.from(findOwned(ticketId, userId));
+    }
+
+    // Contrôle d'accès
+    public TicketDTO getByCode(String code) {
+        return ticketRepository.findByCodeWithEvent(code.trim().toUpperCase())
+                .map(TicketDTO::from)
+                .orElseThrow(() -> new NotFoundException("Billet non trouvé"));
+    }
+
+    // Un seul update : une réservation confirmée entre-temps n'est pas touchée
+    @Scheduled(fixedDelayString = "${app.tickets.expiry-interval-ms:5000}")
+    public void expireHolds() {
+        RowCallbackHandler releaseSeats = rs -> inventory.release(rs.getLong("ticket_type_id"), rs.getInt("quantity"));
+        jdbcTemplate.query(EXPIRE_SQL, releaseSeats, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private Ticket findOwned(Long ticketId, Long userId) {
+        return ticketRepository.findByIdWithEvent(ticketId)
+                .filter(ticket -> ticket.getUser().getId().equals(userId))
+                .orElseThrow(() -> new NotFoundException("Billet non trouvé"));
+    }
+
+    private String newCode() {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = CODE_ALPHABET[random.nextInt(CODE_ALPHABET.length)];
+        }
+        return new String(code);
+    }
+}
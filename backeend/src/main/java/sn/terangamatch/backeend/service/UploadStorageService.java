@@ -0,0 +1,210 @@
+package sn.terangamatch.backeend.service;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import sn.terangamatch.backeend.exception.BadRequestException;
+import sn.terangamatch.backeend.exception.PayloadTooLargeException;
+
+/**
+ * Stockage des fichiers envoyés sous uploads/ : écriture en flux (jamais le fichier entier en mémoire),
+ * nom = empreinte SHA-256 du contenu, donc un même fichier envoyé plusieurs fois n'est stocké qu'une fois.
+ * Un fichier partagé peut donc être libéré par un article pendant qu'un autre upload vient de le réutiliser :
+ * stockage et libération d'une même URL sont sérialisés, et une URL stockée il y a moins de
+ * app.uploads.release-grace n'est supprimée qu'après ce délai, si elle n'est toujours pas référencée.
+ */
+@Slf4j
+@Service
+public class UploadStorageService {
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final long TRANSFER_CHUNK = 64 * 1024;
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+    private static final int LOCK_STRIPES = 64;
+
+    private record PendingRelease(BooleanSupplier stillReferenced, Runnable beforeDelete) {
+    }
+
+    private final Path root;
+    private final long maxSizeBytes;
+    private final long releaseGraceMillis;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // URL -> date du dernier stockage (ms), tant qu'elle est dans le délai de grâce
+    private final Map<String, Long> recentlyStored = new ConcurrentHashMap<>();
+    private final Map<String, PendingRelease> deferredReleases = new ConcurrentHashMap<>();
+
+    public UploadStorageService(@Value("${app.uploads.dir:uploads}") String directory,
+                                @Value("${app.uploads.max-size:10MB}") DataSize maxSize,
+                                @Value("${app.uploads.release-grace:10m}") Duration releaseGrace) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+        this.maxSizeBytes = maxSize.toBytes();
+        this.releaseGraceMillis = releaseGrace.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // Retourne l'URL publique du fichier, ex : /uploads/articles/<sha256>.png
+    public String store(MultipartFile file, String category) throws IOException {
+        Path directory = root.resolve(category).normalize();
+        if (!directory.startsWith(root)) {
+            throw new BadRequestException("Dossier d'upload invalide : " + category);
+        }
+        Files.createDirectories(directory);
+
+        Path temp = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            MessageDigest sha256 = newSha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256);
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                    if (position > maxSizeBytes) {
+                        throw new PayloadTooLargeException("Fichier trop volumineux (maximum "
+                                + DataSize.ofBytes(maxSizeBytes).toMegabytes() + " Mo)");
+                    }
+                }
+            }
+
+            String fileName = HexFormat.of().formatHex(sha256.digest()) + extensionOf(file.getOriginalFilename());
+            Path stored = directory.resolve(fileName);
+            String url = URL_PREFIX + root.relativize(stored).toString().replace('\\', '/');
+            ReentrantLock lock = lockFor(url);
+            lock.lock();
+            try {
+                if (Files.exists(stored)) {
+                    // Contenu identique déjà présent : on garde l'existant
+                    Files.delete(temp);
+                } else {
+                    // Même contenu => même nom : un remplacement concurrent est sans effet
+                    Files.move(temp, stored, StandardCopyOption.ATOMIC_MOVE);
+                }
+                recentlyStored.put(url, System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+            return url;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Supprime le fichier si {@code stillReferenced} est faux, après {@code beforeDelete} (variantes...).
+     * Le test de référence est fait sous le verrou de l'URL ; si l'URL vient d'être stockée par un
+     * upload dont l'entité n'est pas encore enregistrée, la libération est reportée à la fin du délai de grâce.
+     */
+    public void release(String url, BooleanSupplier stillReferenced, Runnable beforeDelete) {
+        if (resolve(url) == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(url);
+        lock.lock();
+        try {
+            if (stillReferenced.getAsBoolean()) {
+                return;
+            }
+            Long storedAt = recentlyStored.get(url);
+            if (storedAt != null && System.currentTimeMillis() - storedAt < releaseGraceMillis) {
+                deferredReleases.put(url, new PendingRelease(stillReferenced, beforeDelete));
+                return;
+            }
+            beforeDelete.run();
+            delete(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.release-sweep-ms:60000}")
+    public void releaseDeferred() {
+        long now = System.currentTimeMillis();
+        recentlyStored.entrySet().removeIf(entry -> now - entry.getValue() >= releaseGraceMillis);
+        deferredReleases.forEach((url, pending) -> {
+            if (!recentlyStored.containsKey(url) && deferredReleases.remove(url, pending)) {
+                release(url, pending.stillReferenced(), pending.beforeDelete());
+            }
+        });
+    }
+
+    private void delete(String url) {
+        Path file = resolve(url);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer le fichier {}", file, e);
+        }
+    }
+
+    // Chemin sur disque d'une URL /uploads/..., null si l'URL sort du dossier d'upload
+    public Path resolve(String url) {
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Path file = root.resolve(url.substring(URL_PREFIX.length())).normalize();
+        return file.startsWith(root) && !file.equals(root) ? file : null;
+    }
+
+    private ReentrantLock lockFor(String url) {
+        return locks[Math.floorMod(url.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -3,11 +3,18 @@ package sn.terangamatch.backeend.service;
 import lombok.RequiredArgsConstructor;
 import sn.terangamatch.backeend.dto.UserDTO;
 import sn.terangamatch.backeend.model.User;
+import sn.terangamatch.backeend.model.UserRevocation;
 import sn.terangamatch.backeend.model.UserRole;
 import sn.terangamatch.backeend.repository.UserRepository;
+import sn.terangamatch.backeend.repository.UserRevocationRepository;
+import sn.terangamatch.backeend.security.jwt.TokenVersionRegistry;
+import sn.terangamatch.backeend.security.service.CustomUserDetailsService;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
 import java.time.LocalDateTime;
@@ -20,7 +27,10 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserRevocationRepository userRevocationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final CustomUserDetailsService userDetailsService;
 
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
@@ -48,12 +58,29 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
         user.setRole(newRole);
+        // Les tokens portant l'ancien rôle ne sont plus acceptés
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenVersionRegistry.updateVersion(user.getId(), user.getTokenVersion());
+        userDetailsService.evict(user.getEmail());
         return toDTO(user);
     }
 
+    // La révocation est persistée avec la suppression : elle survit aux redémarrages et atteint les autres nœuds
+    @Transactional
     public void deleteUser(Long id) {
+        Optional<String> email = userRepository.findById(id).map(User::getEmail);
+        LocalDateTime revokedAt = LocalDateTime.now();
+        userRevocationRepository.save(UserRevocation.builder().userId(id).revokedAt(revokedAt).build());
         userRepository.deleteById(id);
+        // Après le commit : un login concurrent ne peut plus remettre l'utilisateur en cache, et un rollback ne révoque rien
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                email.ifPresent(userDetailsService::evict);
+                tokenVersionRegistry.markDeleted(id, revokedAt);
+            }
+        });
     }
 
     private UserDTO toDTO(User user) {
@@ -0,0 +1,126 @@
+package sn.terangamatch.backeend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sn.terangamatch.backeend.repository.TicketTypeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TicketInventoryTest {
+
+	private static final Long TYPE = 1L;
+
+	private final TicketInventory inventory =
+			new TicketInventory(mock(TicketTypeRepository.class), mock(JdbcTemplate.class), 8);
+
+	@Test
+	void concurrentAcquiresNeverExceedCapacity() throws Exception {
+		int capacity = 1000;
+		int threads = 16;
+		inventory.register(TYPE, capacity);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				int acquired = 0;
+				for (int i = 0; i < 200; i++) {
+					int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+					if (inventory.tryAcquire(TYPE, quantity)) {
+						acquired += quantity;
+					}
+				}
+				return acquired;
+			}));
+		}
+		start.countDown();
+		int acquired = 0;
+		for (Future<Integer> result : results) {
+			acquired += result.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		int available = inventory.available(TYPE);
+		assertTrue(acquired <= capacity);
+		assertEquals(capacity, acquired + available);
+		// Aucune place perdue : le reliquat, éparpillé sur les compteurs, reste vendable d'un bloc
+		if (available > 0) {
+			assertTrue(inventory.tryAcquire(TYPE, available));
+		}
+		assertEquals(0, inventory.available(TYPE));
+		assertFalse(inventory.tryAcquire(TYPE, 1));
+	}
+
+	@Test
+	void acquireGathersAcrossStripes() {
+		// 8 compteurs à 1 place : aucun ne suffit seul
+		inventory.register(TYPE, 8);
+
+		assertTrue(inventory.tryAcquire(TYPE, 3));
+		assertEquals(5, inventory.available(TYPE));
+		assertTrue(inventory.tryAcquire(TYPE, 5));
+		assertEquals(0, inventory.available(TYPE));
+	}
+
+	@Test
+	void failedGatherRestoresEveryStripe() {
+		// 4 places sur 8 compteurs : 1,1,1,1,0,0,0,0
+		inventory.register(TYPE, 4);
+
+		assertFalse(inventory.tryAcquire(TYPE, 5));
+		assertEquals(4, inventory.available(TYPE));
+		assertTrue(inventory.tryAcquire(TYPE, 4));
+		assertEquals(0, inventory.available(TYPE));
+	}
+
+	@Test
+	void resizeBelowCommittedSeatsIsRejected() {
+		inventory.register(TYPE, 10);
+		assertTrue(inventory.tryAcquire(TYPE, 7));
+
+		assertFalse(inventory.resize(TYPE, 4));
+		assertEquals(3, inventory.available(TYPE));
+
+		assertTrue(inventory.resize(TYPE, 7));
+		assertEquals(0, inventory.available(TYPE));
+		assertFalse(inventory.tryAcquire(TYPE, 1));
+
+		assertTrue(inventory.resize(TYPE, 12));
+		assertEquals(5, inventory.available(TYPE));
+	}
+
+	@Test
+	void releaseAfterResizeKeepsAvailabilityWithinCapacity() {
+		inventory.register(TYPE, 10);
+		assertTrue(inventory.tryAcquire(TYPE, 6));
+		assertTrue(inventory.resize(TYPE, 6));
+
+		inventory.release(TYPE, 6);
+
+		assertEquals(6, inventory.available(TYPE));
+	}
+
+	@Test
+	void unregisteredTypeHasNoSeats() {
+		inventory.register(TYPE, 10);
+		inventory.unregister(List.of(TYPE));
+
+		assertEquals(0, inventory.available(TYPE));
+		inventory.release(TYPE, 2);
+		assertEquals(0, inventory.available(TYPE));
+	}
+}
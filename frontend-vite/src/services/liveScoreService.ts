@@ -0,0 +1,65 @@
+import { apiPost } from '@/lib/api';
+import { LiveUpdate, StreamTokenResponse } from '@/types/backend';
+
+const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080';
+const INITIAL_RETRY_DELAY_MS = 1000;
+const MAX_RETRY_DELAY_MS = 30000;
+
+/**
+ * Abonnement aux scores en direct (SSE), pour un événement ou pour tous (eventId = null).
+ *
+ * Le flux exige un jeton de flux court (5 min) passé en ?access_token=. La reconnexion automatique
+ * d'EventSource réutiliserait la même URL, donc un jeton expiré, et s'arrêterait définitivement sur
+ * le refus. On ferme donc l'EventSource à la moindre erreur (expiration du flux, client trop lent
+ * déconnecté, coupure réseau) et on rouvre avec un jeton neuf, après un délai croissant.
+ *
+ * Retourne la fonction de désabonnement.
+ */
+export const subscribeLiveScores = (
+  eventId: number | null,
+  onUpdate: (update: LiveUpdate) => void
+): (() => void) => {
+  let source: EventSource | null = null;
+  let stopped = false;
+  let retryDelay = INITIAL_RETRY_DELAY_MS;
+  let retryTimer: ReturnType<typeof setTimeout> | undefined;
+
+  const scheduleReconnect = () => {
+    if (stopped) return;
+    retryTimer = setTimeout(connect, retryDelay);
+    retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+  };
+
+  const connect = async () => {
+    // Le direct est réservé aux utilisateurs connectés : sans session, pas de jeton de flux
+    if (!localStorage.getItem('lateranga_token')) return;
+    try {
+      const { token } = await apiPost<StreamTokenResponse>('/api/events/live/stream-token', {});
+      if (stopped) return;
+      const path = eventId === null ? '/api/events/live/stream' : `/api/events/${eventId}/stream`;
+      source = new EventSource(`${API_BASE_URL}${path}?access_token=${encodeURIComponent(token)}`);
+      source.onopen = () => {
+        retryDelay = INITIAL_RETRY_DELAY_MS;
+      };
+      source.addEventListener('live-score', (event) => {
+        onUpdate(JSON.parse((event as MessageEvent).data) as LiveUpdate);
+      });
+      source.onerror = () => {
+        source?.close();
+        source = null;
+        scheduleReconnect();
+      };
+    } catch (error) {
+      console.error('Erreur dans subscribeLiveScores:', error);
+      scheduleReconnect();
+    }
+  };
+
+  connect();
+
+  return () => {
+    stopped = true;
+    clearTimeout(retryTimer);
+    source?.close();
+  };
+};
@@ -54,4 +54,22 @@ export interface JwtPayload {
   role: UserRole;
   iat: number; // issued at
   exp: number; // expiration
-}
\ No newline at end of file
+}
+// Jeton court pour les flux SSE du direct (POST /api/events/live/stream-token)
+export interface StreamTokenResponse {
+  token: string;
+  expiresInSeconds: number;
+}
+
+// Message poussé par les flux SSE du direct (événement "live-score")
+export interface LiveUpdate {
+  eventId: number;
+  status?: string;
+  live: boolean;
+  liveData?: {
+    homeTeam?: string;
+    awayTeam?: string;
+    score?: string;
+  };
+  updatedAt?: string;
+}